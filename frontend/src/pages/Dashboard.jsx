@@ -1,4 +1,4 @@
-import { useEffect, useState, useCallback } from "react";
+import { useEffect, useState, useCallback, useRef } from "react";
 import { useNavigate } from "react-router-dom"; 
 import axios from "axios"; 
 
@@ -18,6 +18,46 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Reads the server-sent event stream of account changes (GET /api/accounts/events) and calls
+// onEvent(name, data) for each event. EventSource can't send the Authorization header, so the
+// stream is read through fetch and parsed here. Resolves when the server ends the stream.
+const streamAccountEvents = async (signal, onEvent) => {
+  const token = localStorage.getItem("token");
+  const res = await fetch("/api/accounts/events", {
+    headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+    signal,
+  });
+  if (!res.ok) {
+    const err = new Error(`Event stream failed with status ${res.status}`);
+    err.status = res.status;
+    throw err;
+  }
+
+  const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+  let name = "";
+  let data = [];
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += value;
+    const lines = buffer.split(/\r?\n/);
+    buffer = lines.pop();
+    for (const line of lines) {
+      if (line === "") {
+        if (data.length > 0) onEvent(name || "message", data.join("\n"));
+        name = "";
+        data = [];
+      } else if (line.startsWith("event:")) {
+        name = line.slice(6).trim();
+      } else if (line.startsWith("data:")) {
+        data.push(line.slice(5).replace(/^ /, ""));
+      }
+      // Lines starting with ':' are heartbeats.
+    }
+  }
+};
+
 const MessageBox = ({ show, message, onClose, onConfirm, type }) => {
     if (!show) return null;
 
@@ -58,7 +98,7 @@ const MessageBox = ({ show, message, onClose, onConfirm, type }) => {
     );
 };
 
-const TransactionModal = ({ show, onClose, account, transactions, amount, setAmount, handleDeposit, handleWithdraw, transactionError, setTransactionError }) => {
+const TransactionModal = ({ show, onClose, account, transactions, hasMoreTransactions, onLoadMore, amount, setAmount, handleDeposit, handleWithdraw, transactionError, setTransactionError }) => {
   if (!show) return null;
 
   const handleAmountChange = (e) => {
@@ -129,7 +169,7 @@ const TransactionModal = ({ show, onClose, account, transactions, amount, setAmo
                     <tr key={tx.id} className="hover:bg-teal-50/50 transition duration-100">
                       <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-900">{tx.id.substring(0, 8)}...</td>
                       <td className="px-6 py-4 whitespace-nowrap text-sm font-medium">
-                        <span className={`px-2 inline-flex text-xs leading-5 font-semibold rounded-full ${tx.type === 'DEPOSIT' ? 'bg-green-100 text-green-800' : 'bg-red-100 text-red-800'}`}>
+                        <span className={`px-2 inline-flex text-xs leading-5 font-semibold rounded-full ${(tx.type === 'DEPOSIT' || tx.type === 'TRANSFER_IN') ? 'bg-green-100 text-green-800' : 'bg-red-100 text-red-800'}`}>
                           €{parseFloat(tx.amount ?? 0).toFixed(2)}
                         </span>
                       </td>
@@ -161,6 +201,16 @@ const TransactionModal = ({ show, onClose, account, transactions, amount, setAmo
                   ))}
                 </tbody>
               </table>
+              {hasMoreTransactions && (
+                <div className="flex justify-center mt-4">
+                  <button
+                    className="px-4 py-2 bg-gray-100 text-gray-700 font-semibold rounded-lg hover:bg-gray-200 transition duration-150"
+                    onClick={onLoadMore}
+                  >
+                    Load older transactions
+                  </button>
+                </div>
+              )}
             </div>
           )}
         </div>
@@ -183,6 +233,7 @@ export default function Dashboard() {
   const [showModal, setShowModal] = useState(false);
   const [selectedAccount, setSelectedAccount] = useState(null);
   const [transactions, setTransactions] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [amount, setAmount] = useState("");
   const [showValidationMessage, setShowValidationMessage] = useState(false);
   
@@ -198,6 +249,15 @@ export default function Dashboard() {
   const navigate = useNavigate();
   const username = localStorage.getItem("username");
 
+  // While the event stream is live, writes show up through it; without it, screens refetch as before.
+  const streamLive = useRef(false);
+  const selectedAccountRef = useRef(null);
+  // Highest account version applied from a "transaction" event, per account id.
+  const appliedVersions = useRef(new Map());
+  useEffect(() => {
+    selectedAccountRef.current = showModal ? selectedAccount : null;
+  }, [showModal, selectedAccount]);
+
   const handleLogout = useCallback(() => {
     localStorage.removeItem("token");
     localStorage.removeItem("username");
@@ -222,7 +282,7 @@ export default function Dashboard() {
       const path = "/api/accounts/create";
       await api.post(path, { accountName: newAccountName });
       setNewAccountName("");
-      fetchAccounts();
+      if (!streamLive.current) fetchAccounts();
     } catch (err) {
       console.error("Create account error:", err);
     }
@@ -256,7 +316,7 @@ export default function Dashboard() {
       const path = `/api/accounts/${accountId}`;
       await api.delete(path); 
       console.log(`[FRONTEND] Account ${accountId} deleted successfully.`);
-      fetchAccounts(); 
+      if (!streamLive.current) fetchAccounts();
     } catch (err) {
       console.error("Delete account error:", err);
       
@@ -290,19 +350,35 @@ export default function Dashboard() {
     setSelectedAccount(account);
     setTransactionError(null); 
     try {
-      const path = `/api/transactions/${account.id}`;
+      const path = `/api/transactions/${account.id}/history`;
       const res = await api.get(path);
-      setTransactions(Array.isArray(res.data) ? res.data : []);
+      setTransactions(Array.isArray(res.data?.items) ? res.data.items : []);
+      setNextCursor(res.data?.nextCursor ?? null);
       setShowModal(true);
       setAmount(""); 
     } catch (err) {
       console.error("View transactions error:", err);
-      setTransactions(Array.isArray(err.response?.data) ? err.response.data : []); 
+      setTransactions([]);
+      setNextCursor(null);
       setShowModal(true);
       setAmount(""); 
     }
   }, []);
 
+  const loadMoreTransactions = useCallback(async () => {
+    if (!selectedAccount || !nextCursor) return;
+    try {
+      const path = `/api/transactions/${selectedAccount.id}/history?cursor=${encodeURIComponent(nextCursor)}`;
+      const res = await api.get(path);
+      const items = Array.isArray(res.data?.items) ? res.data.items : [];
+      setTransactions(prev => [...prev, ...items]);
+      setNextCursor(res.data?.nextCursor ?? null);
+    } catch (err) {
+      console.error("Load more transactions error:", err);
+      if (err.response?.status === 401 || err.response?.status === 403) handleLogout();
+    }
+  }, [selectedAccount, nextCursor, handleLogout]);
+
   const updateLocalAccountBalance = useCallback((accountId, newBalance) => {
       setAccounts(prevAccounts => 
           prevAccounts.map(account => 
@@ -314,6 +390,51 @@ export default function Dashboard() {
       );
   }, []);
 
+  const reloadTransactions = useCallback(async (accountId) => {
+    try {
+      const res = await api.get(`/api/transactions/${accountId}/history`);
+      setTransactions(Array.isArray(res.data?.items) ? res.data.items : []);
+      setNextCursor(res.data?.nextCursor ?? null);
+    } catch (err) {
+      console.error("Reload transactions error:", err);
+    }
+  }, []);
+
+  const handleAccountEvent = useCallback((name, data) => {
+    const payload = data ? JSON.parse(data) : null;
+    const open = selectedAccountRef.current;
+    switch (name) {
+      case "ready":
+      case "resync":
+        // Fetched after the stream is open, so no change can fall between the snapshot and the events.
+        fetchAccounts();
+        if (open) reloadTransactions(open.id);
+        break;
+      case "transaction": {
+        // Concurrent commits can deliver events out of order; an older one would roll the balance back.
+        const applied = appliedVersions.current.get(payload.accountId);
+        if (applied !== undefined && payload.version < applied) break;
+        appliedVersions.current.set(payload.accountId, payload.version);
+        updateLocalAccountBalance(payload.accountId, payload.balance);
+        if (open && open.id === payload.accountId) {
+          setTransactions(prev => prev.some(tx => tx.id === payload.transaction.id)
+              ? prev
+              : [payload.transaction, ...prev]);
+        }
+        break;
+      }
+      case "account-created":
+        setAccounts(prev => prev.some(account => account.id === payload.id) ? prev : [...prev, payload]);
+        break;
+      case "account-deleted":
+        setAccounts(prev => prev.filter(account => account.id !== payload.id));
+        if (open && open.id === payload.id) setShowModal(false);
+        break;
+      default:
+        break;
+    }
+  }, [fetchAccounts, reloadTransactions, updateLocalAccountBalance]);
+
   const handleDeposit = async () => {
     if (!selectedAccount || !amount || parseFloat(amount) <= 0) {
         setTransactionError("Please enter a valid amount greater than zero.");
@@ -331,12 +452,12 @@ export default function Dashboard() {
       setAmount("");
       setTransactionError(null); 
 
-      const currentBalance = parseFloat(selectedAccount.balance);
-      const newBalance = (currentBalance + depositAmount).toFixed(2);
-
-      updateLocalAccountBalance(selectedAccount.id, newBalance);
-      
-      await viewTransactions({ ...selectedAccount, balance: newBalance }); 
+      if (!streamLive.current) {
+        const currentBalance = parseFloat(selectedAccount.balance);
+        const newBalance = (currentBalance + depositAmount).toFixed(2);
+        updateLocalAccountBalance(selectedAccount.id, newBalance);
+        await viewTransactions({ ...selectedAccount, balance: newBalance });
+      }
 
     } catch (err) {
       console.error("Deposit error:", err);
@@ -375,11 +496,11 @@ export default function Dashboard() {
       setAmount("");
       setTransactionError(null); 
 
-      const newBalance = (currentBalance - withdrawAmount).toFixed(2);
-      
-      updateLocalAccountBalance(selectedAccount.id, newBalance);
-
-      await viewTransactions({ ...selectedAccount, balance: newBalance });
+      if (!streamLive.current) {
+        const newBalance = (currentBalance - withdrawAmount).toFixed(2);
+        updateLocalAccountBalance(selectedAccount.id, newBalance);
+        await viewTransactions({ ...selectedAccount, balance: newBalance });
+      }
       
     } catch (err) {
       console.error("Withdraw error:", err);
@@ -403,6 +524,43 @@ export default function Dashboard() {
     }
   }, [handleLogout, fetchAccounts]);
 
+  // Keeps the event stream open, reconnecting with backoff; each "ready" refetches the snapshot.
+  useEffect(() => {
+    if (!localStorage.getItem("token")) return undefined;
+    const controller = new AbortController();
+    let retryDelay = 1000;
+
+    const run = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          await streamAccountEvents(controller.signal, (name, data) => {
+            if (name === "ready") {
+              streamLive.current = true;
+              retryDelay = 1000;
+            }
+            handleAccountEvent(name, data);
+          });
+        } catch (err) {
+          if (controller.signal.aborted) return;
+          if (err.status === 401 || err.status === 403) {
+            handleLogout();
+            return;
+          }
+          console.error("Account event stream error:", err);
+        }
+        streamLive.current = false;
+        await new Promise(resolve => setTimeout(resolve, retryDelay));
+        retryDelay = Math.min(retryDelay * 2, 30000);
+      }
+    };
+    run();
+
+    return () => {
+      controller.abort();
+      streamLive.current = false;
+    };
+  }, [handleAccountEvent, handleLogout]);
+
   const renderTechnicalExplanation = () => {
     const parts = TECHNICAL_EXPLANATION.split('**');
     
@@ -498,7 +656,7 @@ export default function Dashboard() {
                   <tr key={acc.id} className="hover:bg-teal-50/50 transition duration-100">
                     <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-900">{acc.id.substring(0, 8)}...</td>
                     <td className="px-6 py-4 whitespace-nowrap text-sm font-medium text-teal-600">{acc.name}</td>
-                    <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">{acc.user?.username || acc.username}</td>
+                    <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">{acc.username}</td>
                     <td className="px-6 py-4 whitespace-nowrap text-sm font-bold text-right text-gray-900">
                         €{balance.toFixed(2)}
                     </td>
@@ -530,6 +688,8 @@ export default function Dashboard() {
           onClose={() => {setShowModal(false); setTransactionError(null)}} 
           account={selectedAccount} 
           transactions={transactions} 
+          hasMoreTransactions={nextCursor !== null}
+          onLoadMore={loadMoreTransactions}
           amount={amount} 
           setAmount={setAmount}
           handleDeposit={handleDeposit}
@@ -0,0 +1,41 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.FinanceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application for benchmarks, with its web server on a random port.
+ * Uses a private in-memory H2 database unless -Dbench.datasource.url (plus .username/.password) points
+ * at a real database; commit-bound comparisons such as GroupCommitBenchmark need PostgreSQL to mean much.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String... overrides) {
+        String url = System.getProperty("bench.datasource.url");
+        List<String> args = new ArrayList<>();
+        if (url == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        } else {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("bench.datasource.username", ""));
+            args.add("--spring.datasource.password=" + System.getProperty("bench.datasource.password", ""));
+        }
+        args.add("--server.port=0");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--jwt.secret=" + System.getProperty("bench.jwt.secret",
+                "YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldC1iZW5jaG1hcmstb25seS1zZWNyZXQ="));
+        args.addAll(List.of(overrides));
+        return new SpringApplicationBuilder(FinanceApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import com.example.finance.model.User;
+import com.example.finance.service.AccountService;
+import com.example.finance.service.AuthService;
+import com.example.finance.service.GroupCommitService;
+import com.example.finance.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput of the direct path (one commit per deposit) against group commit, with many
+ * concurrent callers spread over a set of accounts.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="GroupCommit"
+ * and add -Dbench.datasource.url=jdbc:postgresql://... to measure against real commit latency.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class GroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    @Param({"100"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private GroupCommitService groupCommitService;
+    private UUID[] accountIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start(
+                "--transactions.group-commit.enabled=" + groupCommit,
+                "--spring.datasource.hikari.maximum-pool-size=20");
+        transactionService = context.getBean(TransactionService.class);
+        groupCommitService = context.getBean(GroupCommitService.class);
+
+        String username = "bench-" + UUID.randomUUID();
+        context.getBean(AuthService.class).register(new User(username, "BenchPassw0rd!"));
+        AccountService accountService = context.getBean(AccountService.class);
+        accountIds = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            AccountView account = accountService.createAccount(username, "Account " + i);
+            accountIds[i] = account.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        UUID accountId = accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+        return groupCommit
+                ? groupCommitService.submit(accountId, TransactionType.DEPOSIT, 100, null)
+                : transactionService.deposit(accountId, 100);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.TransactionPage;
+import com.example.finance.dto.TransactionRequest;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the hot payloads: an account list, a page of transaction history (the default and
+ * the maximum page size), and reading a deposit/withdraw request body. The mapper is configured the
+ * way Spring Boot configures the application's.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="Json -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ObjectWriter accountsWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader requestReader;
+    private List<AccountView> accounts;
+    private TransactionPage page;
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        accountsWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, AccountView.class));
+        pageWriter = mapper.writerFor(TransactionPage.class);
+        requestReader = mapper.readerFor(TransactionRequest.class);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        accounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            accounts.add(new AccountView(UUID.randomUUID(), "Account " + i, random.nextLong(1_000_000_00L), "bench-user"));
+        }
+        List<Transaction> items = new ArrayList<>(pageSize);
+        Instant date = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < pageSize; i++) {
+            Transaction txn = new Transaction(null, random.nextLong(1, 100_000_00L),
+                    i % 3 == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT);
+            txn.setId(UUID.randomUUID());
+            txn.setDate(date.minusSeconds(i * 3600L));
+            items.add(txn);
+        }
+        page = new TransactionPage(items, "MjAyNi0xMC0xN1QxMjowMDowMFp8YmVuY2g");
+        requestBody = ("{\"accountId\":\"" + UUID.randomUUID() + "\",\"amount\":125.50}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeAccounts() throws Exception {
+        return accountsWriter.writeValueAsBytes(accounts);
+    }
+
+    @Benchmark
+    public byte[] writeHistoryPage() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public TransactionRequest readTransactionRequest() throws Exception {
+        return requestReader.readValue(requestBody);
+    }
+}
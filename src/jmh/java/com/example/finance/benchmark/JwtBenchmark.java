@@ -0,0 +1,61 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost: signing at login, a full parse and HMAC check (what a cache miss
+ * pays), and a verified-token cache hit (what a repeat request pays). The filter around it is
+ * measured by JwtFilterBenchmark.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="Jwt -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(
+            "jwt-benchmark-secret-jwt-benchmark-secret-jwt-benchmark-secret-0123".getBytes(StandardCharsets.UTF_8));
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 10_000, new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtil.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return jwtUtil.getVerifiedUsername(token);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.security.JwtAuthenticationFilter;
+import com.example.finance.security.JwtUtil;
+import com.example.finance.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication. {@code legacyTwoParses} reproduces the old filter path
+ * (a fresh parser to read the subject, then another to validate), {@code singleParse} verifies once
+ * with the shared parser, and {@code filterCached} runs the whole filter with the verified-token cache.
+ * The user lookup is stubbed so only token handling is measured.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="JwtFilter"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(
+            "jwt-filter-benchmark-secret-jwt-filter-benchmark-secret-0123456789".getBytes(StandardCharsets.UTF_8));
+
+    private Key key;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() {
+        // The filter logs every request to stdout; keep that out of the measurement.
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        jwtUtil = new JwtUtil(SECRET, 10_000, new SimpleMeterRegistry());
+        UserDetailsService users = username -> User.withUsername(username).password("n/a").authorities("USER").build();
+        filter = new JwtAuthenticationFilter(jwtUtil,
+                new PrincipalCache(users, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5)));
+        token = jwtUtil.generateToken("bench-user");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public boolean legacyTwoParses() {
+        String username = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return username != null;
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return jwtUtil.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/list");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
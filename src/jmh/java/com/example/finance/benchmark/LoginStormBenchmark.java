@@ -0,0 +1,123 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.model.User;
+import com.example.finance.service.AccountService;
+import com.example.finance.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account-endpoint latency while a login storm runs, over real HTTP.
+ *
+ * In the "storm" group, 16 threads post logins (a correct password, so every admitted attempt costs a
+ * full BCrypt check) while 2 threads time GET /api/accounts/list; "quiet" times the same request with
+ * no logins. With limits=on the login rate limiter turns the storm into 429s; with limits=off the rate
+ * limits are lifted, so only the bounded hashing pool (503 when its queue is full) stands between the
+ * storm and the request threads. Compare the accounts percentiles between groups.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="LoginStorm"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginStormBenchmark {
+
+    private static final String PASSWORD = "BenchPassw0rd!";
+
+    @Param({"on", "off"})
+    public String limits;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI accountsUri;
+    private URI loginUri;
+    private String authorization;
+    private String loginBody;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = "on".equals(limits)
+                ? BenchmarkContext.start("--server.tomcat.threads.max=64")
+                : BenchmarkContext.start("--server.tomcat.threads.max=64",
+                        "--security.login.per-username.capacity=1000000000",
+                        "--security.login.per-username.refill-per-minute=1000000000",
+                        "--security.login.per-ip.capacity=1000000000",
+                        "--security.login.per-ip.refill-per-minute=1000000000");
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        accountsUri = URI.create(base + "/api/accounts/list");
+        loginUri = URI.create(base + "/api/auth/login");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        AuthService authService = context.getBean(AuthService.class);
+        String reader = "bench-" + UUID.randomUUID();
+        authService.register(new User(reader, PASSWORD));
+        context.getBean(AccountService.class).createAccount(reader, "bench");
+        authorization = "Bearer " + authService.login(new User(reader, PASSWORD));
+
+        String stormUser = "storm-" + UUID.randomUUID();
+        authService.register(new User(stormUser, PASSWORD));
+        loginBody = "{\"username\":\"" + stormUser + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("quiet")
+    @GroupThreads(2)
+    public int quietAccounts() throws Exception {
+        return accounts();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(2)
+    public int stormAccounts() throws Exception {
+        return accounts();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(16)
+    public int stormLogin() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(loginUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int accounts() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(accountsUri).header("Authorization", authorization).GET().build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("GET /api/accounts/list returned " + status);
+        }
+        return status;
+    }
+}
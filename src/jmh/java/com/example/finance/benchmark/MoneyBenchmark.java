@@ -0,0 +1,67 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic: applying a run of movements in minor units (the hot path), against the
+ * decimal conversions paid at the edges (request parsing, JSON and database columns).
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="Money -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final int MOVEMENTS = 1000;
+
+    private long[] amounts;
+    private BigDecimal decimal;
+    private long minorUnits;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        amounts = new long[MOVEMENTS];
+        for (int i = 0; i < MOVEMENTS; i++) {
+            amounts[i] = random.nextLong(1, 100_000_00L);
+        }
+        decimal = new BigDecimal("1234.56");
+        minorUnits = 123_456L;
+    }
+
+    @Benchmark
+    public long applyMovements() {
+        long balance = 0;
+        for (int i = 0; i < MOVEMENTS; i++) {
+            balance = (i & 3) == 0 ? Money.subtract(balance, amounts[i]) : Money.add(balance, amounts[i]);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long fromDecimal() {
+        return Money.fromDecimal(decimal);
+    }
+
+    @Benchmark
+    public BigDecimal toDecimal() {
+        return Money.toDecimal(minorUnits);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.model.User;
+import com.example.finance.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What registration and login cost in AuthService, through its public methods: rejecting a weak
+ * password (the strength check alone, as nothing is hashed or stored), a full registration, and the
+ * BCrypt match behind a login, at the configurable strengths.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="PasswordBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "BenchPassw0rd!";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--security.bcrypt.strength=" + strength);
+        authService = context.getBean(AuthService.class);
+        encoder = context.getBean(PasswordEncoder.class);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean registerWeakPassword() {
+        try {
+            authService.register(new User("bench-weak", "benchpassword"));
+            throw new IllegalStateException("A weak password was accepted");
+        } catch (IllegalArgumentException rejected) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public User register() {
+        return authService.register(new User("bench-" + UUID.randomUUID(), PASSWORD));
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.TransferResult;
+import com.example.finance.model.User;
+import com.example.finance.repository.AccountRepository;
+import com.example.finance.service.AccountService;
+import com.example.finance.service.AuthService;
+import com.example.finance.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress-tests transfers: many threads move random amounts between random pairs of a small set of
+ * accounts, in both directions, and the run fails unless the total held across them is unchanged.
+ * A few hot accounts maximise opposite-direction lock contention, which is where lock ordering matters.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="Transfer"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    private static final long OPENING_BALANCE = 1_000_000_00L;
+
+    @Param({"10"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String username;
+    private UUID[] accountIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("--spring.datasource.hikari.maximum-pool-size=20");
+        transactionService = context.getBean(TransactionService.class);
+
+        username = "bench-" + UUID.randomUUID();
+        context.getBean(AuthService.class).register(new User(username, "BenchPassw0rd!"));
+        AccountService accountService = context.getBean(AccountService.class);
+        accountIds = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            AccountView account = accountService.createAccount(username, "Account " + i);
+            accountIds[i] = account.getId();
+            transactionService.deposit(account.getId(), OPENING_BALANCE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        try {
+            AccountRepository accountRepository = context.getBean(AccountRepository.class);
+            long total = 0;
+            for (UUID id : accountIds) {
+                total += accountRepository.findBalanceById(id);
+            }
+            if (total != OPENING_BALANCE * accounts) {
+                throw new IllegalStateException("Transfers changed the total: expected " + OPENING_BALANCE * accounts + ", got " + total);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public TransferResult transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        try {
+            return transactionService.transfer(username, accountIds[from], accountIds[to], 1 + random.nextInt(10_000));
+        } catch (RuntimeException e) {
+            // An emptied account is a normal outcome of random transfers; anything else is a failure.
+            if (!"Insufficient funds".equals(e.getMessage())) {
+                throw e;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.finance.benchmark;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.model.User;
+import com.example.finance.service.AccountService;
+import com.example.finance.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request handling on Tomcat's platform-thread pool versus virtual threads, at a concurrency well above
+ * the pool size. 400 client threads each send a request and wait for it, over real HTTP: account
+ * lists, history pages and deposits, all of which block on JDBC. With platform threads the pool is
+ * capped (server.tomcat.threads.max, default 200) and the rest queue; with virtual threads the
+ * connection pool is the only cap. Compare throughput and the latency percentiles between the two.
+ * Numbers on H2 understate the gap, since its queries barely block; point -Dbench.datasource.url at
+ * PostgreSQL for a realistic comparison.
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="VirtualThreads"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 15)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI listUri;
+    private URI depositUri;
+    private URI[] historyUris;
+    private UUID[] accountIds;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // A generous acquire timeout so a saturated pool shows up as latency rather than failed requests.
+        context = BenchmarkContext.start("--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.connection-timeout=60000");
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        AuthService authService = context.getBean(AuthService.class);
+        AccountService accountService = context.getBean(AccountService.class);
+        String username = "bench-" + UUID.randomUUID();
+        authService.register(new User(username, "BenchPassw0rd!"));
+        authorization = "Bearer " + authService.login(new User(username, "BenchPassw0rd!"));
+        accountIds = new UUID[4];
+        historyUris = new URI[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            AccountView account = accountService.createAccount(username, "bench-" + i);
+            accountIds[i] = account.getId();
+            historyUris[i] = URI.create(base + "/api/transactions/" + account.getId() + "/history?size=50");
+        }
+        listUri = URI.create(base + "/api/accounts/list");
+        depositUri = URI.create(base + "/api/transactions/deposit");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int mixedRequests() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(10);
+        HttpRequest request;
+        if (pick < 4) {
+            request = HttpRequest.newBuilder(listUri).header("Authorization", authorization).GET().build();
+        } else if (pick < 8) {
+            request = HttpRequest.newBuilder(historyUris[random.nextInt(historyUris.length)])
+                    .header("Authorization", authorization).GET().build();
+        } else {
+            String body = "{\"accountId\":\"" + accountIds[random.nextInt(accountIds.length)] + "\",\"amount\":100}";
+            request = HttpRequest.newBuilder(depositUri)
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " returned " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.finance.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies (HdrHistogram, microsecond resolution) and status codes per operation, and
+ * writes them as a JSON report with a stable key order, so two runs can be diffed line by line.
+ * Status 0 counts requests that failed without a response (connection errors, timeouts).
+ */
+final class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    LoadReport() {
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new Recorder(3));
+            statuses.put(op, new ConcurrentHashMap<>());
+        }
+    }
+
+    void record(Operation op, long latencyNanos, int status) {
+        latencies.get(op).recordValue(Math.max(1, latencyNanos / 1000));
+        statuses.get(op).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    Map<String, Object> build(LoadTestConfig config, Instant startedAt, double measuredSeconds, long sent) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long total = 0;
+        long errors = 0;
+        for (Operation op : Operation.values()) {
+            Histogram histogram = latencies.get(op).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Long> byStatus = new TreeMap<>();
+            statuses.get(op).forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+            for (Map.Entry<String, Long> entry : byStatus.entrySet()) {
+                int status = Integer.parseInt(entry.getKey());
+                if (status == 0 || status >= 400) {
+                    errors += entry.getValue();
+                }
+            }
+            total += histogram.getTotalCount();
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+            latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            latency.put("mean", round(histogram.getMean() / 1000));
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", histogram.getTotalCount());
+            stats.put("throughput", round(histogram.getTotalCount() / measuredSeconds));
+            stats.put("statuses", byStatus);
+            stats.put("latencyMs", latency);
+            operations.put(op.key, stats);
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("startedAt", startedAt.toString());
+        run.put("measuredSeconds", round(measuredSeconds));
+        run.put("sent", sent);
+        run.put("completed", total);
+        run.put("errors", errors);
+        run.put("dropped", dropped.sum());
+        run.put("throughput", round(total / measuredSeconds));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.describe());
+        report.put("run", run);
+        report.put("operations", operations);
+        return report;
+    }
+
+    static void write(Map<String, Object> report, String path) throws IOException {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        MAPPER.writeValue(file, report);
+    }
+
+    static void print(Map<String, Object> report) {
+        Map<?, ?> run = (Map<?, ?>) report.get("run");
+        System.out.printf("%nThroughput %s req/s over %ss (%s completed, %s errors, %s dropped)%n",
+                run.get("throughput"), run.get("measuredSeconds"), run.get("completed"), run.get("errors"), run.get("dropped"));
+        System.out.printf("%-10s %9s %9s %9s %9s %9s %9s  %s%n", "operation", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        ((Map<?, ?>) report.get("operations")).forEach((op, value) -> {
+            Map<?, ?> stats = (Map<?, ?>) value;
+            Map<?, ?> latency = (Map<?, ?>) stats.get("latencyMs");
+            System.out.printf("%-10s %9s %9s %9s %9s %9s %9s  %s%n", op, stats.get("throughput"), latency.get("p50"),
+                    latency.get("p90"), latency.get("p99"), latency.get("p999"), latency.get("max"), stats.get("statuses"));
+        });
+    }
+
+    /**
+     * Prints how this run's throughput and percentiles moved relative to an earlier report.
+     */
+    static void compare(Map<String, Object> report, String baselinePath) throws IOException {
+        JsonNode baseline = MAPPER.readTree(new File(baselinePath));
+        JsonNode current = MAPPER.valueToTree(report);
+        System.out.printf("%nAgainst %s:%n", baselinePath);
+        System.out.printf("%-10s %12s %12s %12s %12s%n", "operation", "req/s", "p50", "p99", "p999");
+        current.get("operations").fields().forEachRemaining(entry -> {
+            JsonNode before = baseline.path("operations").path(entry.getKey());
+            if (before.isMissingNode()) {
+                return;
+            }
+            JsonNode now = entry.getValue();
+            System.out.printf("%-10s %12s %12s %12s %12s%n", entry.getKey(),
+                    change(before.path("throughput"), now.path("throughput")),
+                    change(before.path("latencyMs").path("p50"), now.path("latencyMs").path("p50")),
+                    change(before.path("latencyMs").path("p99"), now.path("latencyMs").path("p99")),
+                    change(before.path("latencyMs").path("p999"), now.path("latencyMs").path("p999")));
+        });
+    }
+
+    private static String change(JsonNode before, JsonNode after) {
+        if (!before.isNumber() || before.asDouble() == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (after.asDouble() - before.asDouble()) * 100 / before.asDouble());
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.finance.loadtest;
+
+import com.example.finance.FinanceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test over real HTTP, through the application's security filter chain and controllers.
+ *
+ * Requests are sent open-loop: at a fixed rate, each at its scheduled time whether or not earlier ones
+ * have completed, and latency is measured from that scheduled time. A slow server therefore shows up
+ * as latency, instead of quietly lowering the offered load. Each request targets an account drawn
+ * with Zipf skew, using its owner's token, so a few hot accounts see most of the traffic.
+ *
+ * Without target=..., the application is started in-process on a random port: on a private H2
+ * database, or on datasource.url (e.g. the db service of docker-compose.local.yml). In-process, the
+ * per-IP login limit is lifted because every simulated user shares one address; pass app.args to
+ * change any other property. Against a remote target, setup logins wait out 429s.
+ *
+ * Settings (key=value): target, datasource.url/.username/.password, app.args, rate (req/s, 200),
+ * duration (PT60S), warmup (PT10S, not reported), users (50), accounts-per-user (2), skew (1.0),
+ * mix (list:35,deposit:20,withdraw:10,history:30,login:4,register:1), max-in-flight (10000; beyond it
+ * requests are counted as dropped), seed (42), report (target/loadtest/report-<millis>.json), and
+ * baseline (an earlier report to compare against).
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=300 duration=PT2M skew=1.2"
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "LoadTestPassw0rd!";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LoadReport report = new LoadReport();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong registered = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private String baseUrl;
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final List<UUID> accountIds = new ArrayList<>();
+    private final List<String> accountTokens = new ArrayList<>();
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ConfigurableApplicationContext context = null;
+        try {
+            LoadTest test = new LoadTest(config);
+            if (config.target != null) {
+                test.baseUrl = config.target.replaceAll("/+$", "");
+            } else {
+                context = startApplication(config);
+                test.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            }
+            test.setUp();
+            test.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config) {
+        List<String> args = new ArrayList<>();
+        if (config.datasourceUrl == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        } else {
+            args.add("--spring.datasource.url=" + config.datasourceUrl);
+            args.add("--spring.datasource.username=" + config.datasourceUsername);
+            args.add("--spring.datasource.password=" + config.datasourcePassword);
+        }
+        args.add("--server.port=0");
+        args.add("--jwt.secret=bG9hZHRlc3Qtb25seS1zZWNyZXQtbG9hZHRlc3Qtb25seS1zZWNyZXQtbG9hZHRlc3Qtb25seS1zZWNyZXQteHl6");
+        args.add("--security.login.per-ip.capacity=1000000000");
+        args.add("--security.login.per-ip.refill-per-minute=1000000000");
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.com.example.finance=WARN");
+        if (!config.appArgs.isBlank()) {
+            args.addAll(Arrays.asList(config.appArgs.trim().split("\\s+")));
+        }
+        return new SpringApplicationBuilder(FinanceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Registers the users, creates and funds their accounts, closed-loop and before the clock starts.
+     */
+    private void setUp() throws Exception {
+        System.out.printf("Setting up %d users with %d account(s) each against %s%n", config.users, config.accountsPerUser, baseUrl);
+        for (int u = 0; u < config.users; u++) {
+            String username = "lt-" + runId + "-" + u;
+            expect(send(post("/api/auth/register", null, credentials(username))), 200, "register");
+            String token = login(username);
+            usernames.add(username);
+            tokens.add(token);
+            for (int a = 0; a < config.accountsPerUser; a++) {
+                HttpResponse<String> created = expect(send(post("/api/accounts/create", token,
+                        "{\"accountName\":\"Load test " + a + "\"}")), 200, "create account");
+                UUID id = UUID.fromString(MAPPER.readTree(created.body()).get("id").asText());
+                expect(send(post("/api/transactions/deposit", token, movement(id, "1000000.00"))), 200, "fund account");
+                accountIds.add(id);
+                accountTokens.add(token);
+            }
+        }
+    }
+
+    private String login(String username) throws Exception {
+        while (true) {
+            HttpResponse<String> response = send(post("/api/auth/login", null, credentials(username)));
+            if (response.statusCode() == 429) {
+                // A remote target applies its real per-IP login limit; wait for the bucket to refill.
+                Thread.sleep(3000);
+                continue;
+            }
+            JsonNode body = MAPPER.readTree(expect(response, 200, "login").body());
+            return body.get("token").asText();
+        }
+    }
+
+    private void run() throws Exception {
+        SplittableRandom random = new SplittableRandom(config.seed);
+        ZipfSampler accounts = new ZipfSampler(accountIds.size(), config.skew, random.split());
+        Operation[] ops = config.mix.keySet().toArray(Operation[]::new);
+        int[] cumulativeWeights = new int[ops.length];
+        int totalWeight = 0;
+        for (int i = 0; i < ops.length; i++) {
+            totalWeight += config.mix.get(ops[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup.toNanos();
+        long end = measureFrom + config.duration.toNanos();
+        Instant startedAt = Instant.now().plus(config.warmup);
+        long sent = 0;
+        System.out.printf("Running at %.0f req/s: %s warmup, then %s measured%n", config.rate, config.warmup, config.duration);
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * periodNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            int pick = random.nextInt(totalWeight);
+            int opIndex = 0;
+            while (cumulativeWeights[opIndex] <= pick) {
+                opIndex++;
+            }
+            if (inFlight.get() >= config.maxInFlight) {
+                if (measured) {
+                    report.drop();
+                }
+                continue;
+            }
+            dispatch(ops[opIndex], accounts.next(random), random, scheduled, measured);
+            if (measured) {
+                sent++;
+            }
+        }
+
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        double measuredSeconds = config.duration.toNanos() / 1e9;
+        Map<String, Object> result = report.build(config, startedAt, measuredSeconds, sent);
+        LoadReport.print(result);
+        LoadReport.write(result, config.report);
+        System.out.println("\nReport written to " + config.report);
+        if (config.baseline != null) {
+            LoadReport.compare(result, config.baseline);
+        }
+    }
+
+    private void dispatch(Operation op, int account, SplittableRandom random, long scheduled, boolean measured) {
+        UUID accountId = accountIds.get(account);
+        String token = accountTokens.get(account);
+        HttpRequest request = switch (op) {
+            case LIST -> get("/api/accounts/list", token);
+            case DEPOSIT -> post("/api/transactions/deposit", token, movement(accountId, cents(random.nextLong(100, 10_000))));
+            case WITHDRAW -> post("/api/transactions/withdraw", token, movement(accountId, cents(random.nextLong(1, 2_000))));
+            case HISTORY -> get("/api/transactions/" + accountId + "/history?size=50", token);
+            case LOGIN -> post("/api/auth/login", null, credentials(usernames.get(random.nextInt(usernames.size()))));
+            case REGISTER -> post("/api/auth/register", null, credentials("lt-" + runId + "-new-" + registered.incrementAndGet()));
+        };
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            if (measured) {
+                report.record(op, System.nanoTime() - scheduled, error == null ? response.statusCode() : 0);
+            }
+        });
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse<String> expect(HttpResponse<String> response, int status, String what) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Setup step '" + what + "' returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String movement(UUID accountId, String amount) {
+        return "{\"accountId\":\"" + accountId + "\",\"amount\":" + amount + "}";
+    }
+
+    private static String cents(long minorUnits) {
+        return minorUnits / 100 + "." + String.format("%02d", minorUnits % 100);
+    }
+}
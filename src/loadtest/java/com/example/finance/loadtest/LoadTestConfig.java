@@ -0,0 +1,112 @@
+package com.example.finance.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test settings, given as key=value program arguments (see LoadTest for the list and defaults).
+ */
+final class LoadTestConfig {
+
+    final String target;
+    final String datasourceUrl;
+    final String datasourceUsername;
+    final String datasourcePassword;
+    final String appArgs;
+    final double rate;
+    final Duration duration;
+    final Duration warmup;
+    final int users;
+    final int accountsPerUser;
+    final double skew;
+    final Map<Operation, Integer> mix;
+    final int maxInFlight;
+    final long seed;
+    final String report;
+    final String baseline;
+
+    private LoadTestConfig(Map<String, String> args) {
+        target = args.remove("target");
+        datasourceUrl = args.remove("datasource.url");
+        datasourceUsername = args.getOrDefault("datasource.username", "postgres");
+        args.remove("datasource.username");
+        datasourcePassword = args.getOrDefault("datasource.password", "postgres");
+        args.remove("datasource.password");
+        appArgs = args.getOrDefault("app.args", "");
+        args.remove("app.args");
+        rate = Double.parseDouble(take(args, "rate", "200"));
+        duration = Duration.parse(take(args, "duration", "PT60S"));
+        warmup = Duration.parse(take(args, "warmup", "PT10S"));
+        users = Integer.parseInt(take(args, "users", "50"));
+        accountsPerUser = Integer.parseInt(take(args, "accounts-per-user", "2"));
+        skew = Double.parseDouble(take(args, "skew", "1.0"));
+        mix = parseMix(take(args, "mix", "list:35,deposit:20,withdraw:10,history:30,login:4,register:1"));
+        maxInFlight = Integer.parseInt(take(args, "max-in-flight", "10000"));
+        seed = Long.parseLong(take(args, "seed", "42"));
+        report = take(args, "report", "target/loadtest/report-" + System.currentTimeMillis() + ".json");
+        baseline = args.remove("baseline");
+        if (!args.isEmpty()) {
+            throw new IllegalArgumentException("Unknown load-test setting(s): " + args.keySet());
+        }
+        if (rate <= 0 || users <= 0 || accountsPerUser <= 0 || skew < 0) {
+            throw new IllegalArgumentException("rate, users and accounts-per-user must be positive, skew non-negative.");
+        }
+    }
+
+    static LoadTestConfig parse(String[] argv) {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : argv) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            args.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(args);
+    }
+
+    /**
+     * The settings as recorded in the report, so two reports show what differed between their runs.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("target", target != null ? target : datasourceUrl != null ? "in-process: " + datasourceUrl : "in-process: h2");
+        out.put("appArgs", appArgs);
+        out.put("rate", rate);
+        out.put("duration", duration.toString());
+        out.put("warmup", warmup.toString());
+        out.put("users", users);
+        out.put("accountsPerUser", accountsPerUser);
+        out.put("skew", skew);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((op, weight) -> weights.put(op.key, weight));
+        out.put("mix", weights);
+        out.put("maxInFlight", maxInFlight);
+        out.put("seed", seed);
+        return out;
+    }
+
+    private static String take(Map<String, String> args, String key, String defaultValue) {
+        String value = args.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry (want op:weight): " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(kv[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight.");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.finance.loadtest;
+
+/**
+ * The request types the load test can send, by their key in the mix setting.
+ */
+enum Operation {
+    LIST("list"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    HISTORY("history"),
+    LOGIN("login"),
+    REGISTER("register");
+
+    final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equals(key)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + key);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.finance.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples indexes 0..n-1 with probability proportional to 1/(rank+1)^skew, so a few indexes take most
+ * of the traffic (skew 1 is classic Zipf; 0 is uniform). Ranks are shuffled over the indexes with
+ * the run's seed, so the hot items aren't simply the first ones created.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+    private final int[] indexByRank;
+
+    ZipfSampler(int n, double skew, SplittableRandom random) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+        indexByRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexByRank[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexByRank[i];
+            indexByRank[i] = indexByRank[j];
+            indexByRank[j] = swap;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        return indexByRank[Math.min(rank, cumulative.length - 1)];
+    }
+}
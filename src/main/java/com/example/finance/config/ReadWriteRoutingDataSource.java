@@ -0,0 +1,58 @@
+package com.example.finance.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * The route is chosen when a connection is taken, so this must sit behind a LazyConnectionDataSourceProxy:
+ * the transaction manager asks for a connection before the transaction is marked read-only, and the
+ * proxy defers taking a real one until the first statement. Choices are counted as "datasource.routing",
+ * tagged primary, replica, or pinned (read-only, but kept on the primary by ReadYourWrites).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final ReadYourWrites readYourWrites;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter pinned;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites,
+                                      MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.toPrimary = routed(meterRegistry, "primary");
+        this.toReplica = routed(meterRegistry, "replica");
+        this.pinned = routed(meterRegistry, "pinned");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            toPrimary.increment();
+            return Route.PRIMARY;
+        }
+        if (readYourWrites.isPinned()) {
+            pinned.increment();
+            return Route.PRIMARY;
+        }
+        toReplica.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routing")
+                .description("Connections taken through the read/write router, by where they were sent")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.finance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they change something, so replica lag
+ * never shows them a balance from before their own deposit.
+ *
+ * A request counts as a write if its method isn't GET, HEAD or OPTIONS; while it runs, and for
+ * datasource.replica.read-your-writes-window after it succeeds, the user is pinned to the primary.
+ * Writes are recorded as an MVC interceptor, where the authenticated user is still known.
+ */
+public class ReadYourWrites implements HandlerInterceptor {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * True if work on the current thread must see the primary: it's part of a write request, or the
+     * authenticated user wrote within the window.
+     */
+    public boolean isPinned() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet
+                && !SAFE_METHODS.contains(servlet.getRequest().getMethod())) {
+            return true;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && recentWriters.getIfPresent(auth.getName()) != null;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex == null && response.getStatus() < 400 && !SAFE_METHODS.contains(request.getMethod())
+                && request.getUserPrincipal() != null) {
+            recentWriters.put(request.getUserPrincipal().getName(), Boolean.TRUE);
+        }
+    }
+}
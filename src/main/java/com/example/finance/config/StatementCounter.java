@@ -0,0 +1,36 @@
+package com.example.finance.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while counting is started.
+ * Registered as Hibernate's statement inspector (see PersistenceMetricsConfig); threads that never
+ * call start(), such as background jobs, pay only a thread-local lookup per statement.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * Stops counting on this thread.
+     * @return The number of statements since start(), or 0 if counting wasn't started.
+     */
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
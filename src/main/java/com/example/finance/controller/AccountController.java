@@ -1,14 +1,27 @@
 package com.example.finance.controller;
 
-import com.example.finance.model.Account;
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.BalanceAsOf;
+import com.example.finance.dto.RollupGranularity;
+import com.example.finance.dto.RollupPeriod;
+import com.example.finance.service.AccountEvents;
 import com.example.finance.service.AccountService;
+import com.example.finance.service.LedgerService;
+import com.example.finance.service.RollupService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,10 +30,17 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final LedgerService ledgerService;
+    private final RollupService rollupService;
+    private final AccountEvents accountEvents;
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, LedgerService ledgerService, RollupService rollupService,
+                             AccountEvents accountEvents) {
         this.accountService = accountService;
+        this.ledgerService = ledgerService;
+        this.rollupService = rollupService;
+        this.accountEvents = accountEvents;
     }
     
     private String getAuthenticatedUsername() {
@@ -32,34 +52,52 @@ public class AccountController {
     }
 
     @PostMapping("/create")
-    public Account createAccount(@RequestBody Map<String, Object> payload) {
-        System.out.println("[Controller] Received request to create account.");
-
+    public AccountView createAccount(@RequestBody Map<String, Object> payload) {
         Object accountNameObj = payload.get("accountName");
         String accountName = accountNameObj != null ? accountNameObj.toString() : null;
 
         String username = getAuthenticatedUsername();
 
-        System.out.println("[Controller] Extracted accountName: " + accountName);
         return accountService.createAccount(username, accountName);
     }
 
 
     @GetMapping("/list")
-    public List<Account> getAccounts() {
+    public List<AccountView> getAccounts() {
         String username = getAuthenticatedUsername();
-        System.out.println("[Controller] Listing accounts for user: " + username);
         return accountService.getAccounts(username);
     }
 
+    /**
+     * Streams the caller's account changes as server-sent events; see AccountEvents for the event types.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(HttpServletResponse response) {
+        // Stops a buffering reverse proxy (nginx) from holding events back.
+        response.setHeader("X-Accel-Buffering", "no");
+        return accountEvents.subscribe(getAuthenticatedUsername());
+    }
+
     @GetMapping("/{id}")
-    public Account getAccount(@PathVariable UUID id) {
+    public AccountView getAccount(@PathVariable UUID id) {
         return accountService.getAccount(id);
     }
     
+    @GetMapping("/{id}/balance")
+    public BalanceAsOf getBalanceAsOf(@PathVariable UUID id, @RequestParam Instant asOf) {
+        return new BalanceAsOf(id, asOf, ledgerService.getBalanceAsOf(id, asOf));
+    }
+
+    @GetMapping("/{id}/summary")
+    public List<RollupPeriod> getSummary(@PathVariable UUID id,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(defaultValue = "day") String granularity) {
+        return rollupService.getSummary(id, from, to, RollupGranularity.valueOf(granularity.toUpperCase(Locale.ROOT)));
+    }
+
     @DeleteMapping("/{id}")
     public void deleteAccount(@PathVariable UUID id) {
-        System.out.println("[Controller] Received request to delete account ID: " + id);
         accountService.deleteAccount(id);
     }
 }
@@ -3,11 +3,15 @@ package com.example.finance.controller;
 import com.example.finance.dto.LoginRequest;
 import com.example.finance.dto.RegisterRequest;
 import com.example.finance.model.User;
+import com.example.finance.security.LoginRateLimiter;
 import com.example.finance.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,32 +19,35 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Autowired
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/register")
     public User register(@RequestBody RegisterRequest request) {
-        System.out.println("[REGISTER] Request received for username: " + request.getUsername());
-
         User user = new User(request.getUsername(), request.getPassword());
         User savedUser = authService.register(user);
 
-        System.out.println("[REGISTER] User saved: " + savedUser.getUsername());
+        log.info("Registered user {}", savedUser.getUsername());
         return savedUser;
     }
 
     @PostMapping("/login")
-    public Map<String, String> login(@RequestBody LoginRequest request) {
-        System.out.println("[LOGIN] Attempt for username: " + request.getUsername());
+    public Map<String, String> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Throttle before any password hashing; over the limit this is a 429.
+        loginRateLimiter.acquire(request.getUsername(), httpRequest.getRemoteAddr());
 
         User user = new User(request.getUsername(), request.getPassword());
         String token = authService.login(user);
 
-        System.out.println("[LOGIN] Token generated for user: " + request.getUsername());
+        log.debug("Issued token for {}", request.getUsername());
 
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
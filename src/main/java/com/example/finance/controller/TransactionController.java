@@ -1,37 +1,157 @@
 package com.example.finance.controller;
 
+import com.example.finance.dto.ExportFormat;
+import com.example.finance.dto.ImportResult;
+import com.example.finance.dto.TransactionBatchItem;
+import com.example.finance.dto.TransactionBatchResult;
+import com.example.finance.dto.TransactionPage;
 import com.example.finance.dto.TransactionRequest;
+import com.example.finance.dto.TransferRequest;
+import com.example.finance.dto.TransferResult;
 import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import com.example.finance.service.GroupCommitService;
+import com.example.finance.service.IdempotencyService;
+import com.example.finance.service.TransactionExportService;
+import com.example.finance.service.TransactionImportService;
 import com.example.finance.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService exportService;
+    private final TransactionImportService importService;
+    private final IdempotencyService idempotencyService;
+    private final GroupCommitService groupCommitService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService exportService,
+                                 TransactionImportService importService, IdempotencyService idempotencyService,
+                                 GroupCommitService groupCommitService) {
         this.transactionService = transactionService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.idempotencyService = idempotencyService;
+        this.groupCommitService = groupCommitService;
     }
 
+    /**
+     * Deposits into an account. With an Idempotency-Key header, retries of the same request
+     * return the original Transaction instead of crediting again.
+     */
     @PostMapping("/deposit")
-    public Transaction deposit(@RequestBody TransactionRequest request) {
-        return transactionService.deposit(request.getAccountId(), request.getAmount());
+    public Transaction deposit(@RequestBody TransactionRequest request,
+                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return move(request.getAccountId(), TransactionType.DEPOSIT, request.getAmount(), idempotencyKey);
     }
 
+    /**
+     * Withdraws from an account; honours an Idempotency-Key header like deposit.
+     */
     @PostMapping("/withdraw")
-    public Transaction withdraw(@RequestBody TransactionRequest request) {
-        return transactionService.withdraw(request.getAccountId(), request.getAmount());
+    public Transaction withdraw(@RequestBody TransactionRequest request,
+                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return move(request.getAccountId(), TransactionType.WITHDRAW, request.getAmount(), idempotencyKey);
+    }
+
+    /**
+     * Moves funds from one of the caller's accounts to another account atomically, in a single request.
+     */
+    @PostMapping("/transfer")
+    public TransferResult transfer(@RequestBody TransferRequest request) {
+        return transactionService.transfer(getAuthenticatedUsername(), request.getFromAccountId(),
+                request.getToAccountId(), request.getAmount());
+    }
+
+    @PostMapping("/batch")
+    public TransactionBatchResult batch(@RequestBody List<TransactionBatchItem> items) {
+        return transactionService.applyBatch(getAuthenticatedUsername(), items);
+    }
+
+    /**
+     * Imports a CSV bank statement uploaded as multipart field 'file'.
+     * accountId applies to rows when the file has no accountId column.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportResult importStatement(@RequestParam("file") MultipartFile file,
+                                        @RequestParam(required = false) UUID accountId) throws IOException {
+        return importService.importCsv(getAuthenticatedUsername(), file, accountId);
     }
 
     @GetMapping("/{accountId}")
     public List<Transaction> getTransactions(@PathVariable UUID accountId) {
         return transactionService.getTransactions(accountId);
     }
+
+    @GetMapping("/{accountId}/history")
+    public TransactionPage getTransactionHistory(@PathVariable UUID accountId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return transactionService.getTransactionPage(accountId, cursor, size);
+    }
+
+    /**
+     * Streams a statement export as CSV or NDJSON, oldest first, for transactions dated in [from, to).
+     * Both bounds are optional; 'to' defaults to the time of the request.
+     */
+    @GetMapping("/{accountId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable UUID accountId,
+                                                                    @RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to) {
+        ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        // Fail before the response starts streaming, while a proper error can still be returned.
+        exportService.requireAccount(accountId);
+
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        StreamingResponseBody body = out -> exportService.export(accountId, start, end, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + accountId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private String getAuthenticatedUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new IllegalStateException("User not authenticated in security context.");
+        }
+        return auth.getName();
+    }
+
+    // Applies a deposit or withdrawal through the group-commit pipeline when it's enabled, directly otherwise.
+    private Transaction move(UUID accountId, TransactionType type, long amount, String idempotencyKey) {
+        Supplier<Transaction> write = () -> {
+            if (groupCommitService.isEnabled()) {
+                return groupCommitService.submit(accountId, type, amount, idempotencyKey);
+            }
+            return type == TransactionType.DEPOSIT
+                    ? transactionService.deposit(accountId, amount, idempotencyKey)
+                    : transactionService.withdraw(accountId, amount, idempotencyKey);
+        };
+        if (idempotencyKey == null) {
+            return write.get();
+        }
+        return idempotencyService.execute(accountId, idempotencyKey, type, amount, write);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+/**
+ * What the API returns for an account: its own columns plus the owner's username.
+ * Built straight from a query (see AccountRepository), so the owner entity and the transaction
+ * history are never loaded; history is served by the transactions endpoints.
+ */
+public class AccountView {
+    private UUID id;
+    private String name;
+    // Minor units (cents); sent as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+    private String username;
+
+    public AccountView() {}
+
+    public AccountView(UUID id, String name, long balance, String username) {
+        this.id = id;
+        this.name = name;
+        this.balance = balance;
+        this.username = username;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+}
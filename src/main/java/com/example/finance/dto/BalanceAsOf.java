@@ -0,0 +1,33 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class BalanceAsOf {
+    private UUID accountId;
+    private Instant asOf;
+
+    // Minor units (cents), written as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+
+    public BalanceAsOf() {}
+
+    public BalanceAsOf(UUID accountId, Instant asOf, long balance) {
+        this.accountId = accountId;
+        this.asOf = asOf;
+        this.balance = balance;
+    }
+
+    public UUID getAccountId() { return accountId; }
+    public void setAccountId(UUID accountId) { this.accountId = accountId; }
+
+    public Instant getAsOf() { return asOf; }
+    public void setAsOf(Instant asOf) { this.asOf = asOf; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+}
@@ -0,0 +1,44 @@
+package com.example.finance.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a statement import. Rows already imported by an earlier run are counted as skipped.
+ * Only the first errors are listed; errorsTruncated tells whether more were dropped.
+ */
+public class ImportResult {
+    private long rowsRead;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+
+    public ImportResult() {}
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<ImportRowError> getErrors() { return errors; }
+    public void setErrors(List<ImportRowError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
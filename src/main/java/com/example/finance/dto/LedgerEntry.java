@@ -0,0 +1,36 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.TransactionType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a Transaction used when folding history into balance snapshots.
+ * Selecting these instead of entities keeps the persistence context empty during long scans.
+ */
+public class LedgerEntry {
+    private final UUID id;
+    private final Instant date;
+    private final TransactionType type;
+    private final long amount;
+    private final Long balanceAfter;
+
+    public LedgerEntry(UUID id, Instant date, TransactionType type, Long amount) {
+        this(id, date, type, amount, null);
+    }
+
+    public LedgerEntry(UUID id, Instant date, TransactionType type, Long amount, Long balanceAfter) {
+        this.id = id;
+        this.date = date;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+    }
+
+    public UUID getId() { return id; }
+    public Instant getDate() { return date; }
+    public TransactionType getType() { return type; }
+    public long getAmount() { return amount; }
+    public Long getBalanceAfter() { return balanceAfter; }
+}
@@ -0,0 +1,6 @@
+package com.example.finance.dto;
+
+public enum RollupGranularity {
+    DAY,
+    MONTH
+}
@@ -0,0 +1,49 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+/**
+ * Deposit/withdraw totals for one day or month of an account, plus its closing balance.
+ * Amounts are minor units (cents), written as decimal amounts.
+ */
+public class RollupPeriod {
+    private LocalDate periodStart;
+
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long depositTotal;
+    private int depositCount;
+
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long withdrawTotal;
+    private int withdrawCount;
+
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long closingBalance;
+
+    public RollupPeriod() {}
+
+    public RollupPeriod(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public long getDepositTotal() { return depositTotal; }
+    public void setDepositTotal(long depositTotal) { this.depositTotal = depositTotal; }
+
+    public int getDepositCount() { return depositCount; }
+    public void setDepositCount(int depositCount) { this.depositCount = depositCount; }
+
+    public long getWithdrawTotal() { return withdrawTotal; }
+    public void setWithdrawTotal(long withdrawTotal) { this.withdrawTotal = withdrawTotal; }
+
+    public int getWithdrawCount() { return withdrawCount; }
+    public void setWithdrawCount(int withdrawCount) { this.withdrawCount = withdrawCount; }
+
+    public long getClosingBalance() { return closingBalance; }
+    public void setClosingBalance(long closingBalance) { this.closingBalance = closingBalance; }
+}
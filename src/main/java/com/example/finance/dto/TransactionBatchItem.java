@@ -0,0 +1,34 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.example.finance.model.TransactionType;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+public class TransactionBatchItem {
+    private UUID accountId;
+    private TransactionType type;
+    // Minor units (cents); sent and received as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
+
+    public TransactionBatchItem() {}
+
+    public TransactionBatchItem(UUID accountId, TransactionType type, long amount) {
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public UUID getAccountId() { return accountId; }
+    public void setAccountId(UUID accountId) { this.accountId = accountId; }
+
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+}
@@ -0,0 +1,30 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outcome of a batch: how many movements were applied and the resulting balance of every touched account.
+ */
+public class TransactionBatchResult {
+    private int applied;
+    // Minor units (cents), written as decimal amounts.
+    @JsonSerialize(contentUsing = MoneyJson.Serializer.class)
+    private Map<UUID, Long> balances;
+
+    public TransactionBatchResult() {}
+
+    public TransactionBatchResult(int applied, Map<UUID, Long> balances) {
+        this.applied = applied;
+        this.balances = balances;
+    }
+
+    public int getApplied() { return applied; }
+    public void setApplied(int applied) { this.applied = applied; }
+
+    public Map<UUID, Long> getBalances() { return balances; }
+    public void setBalances(Map<UUID, Long> balances) { this.balances = balances; }
+}
@@ -0,0 +1,49 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.example.finance.model.Transaction;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+/**
+ * A "transaction" event on an account stream: the row that was posted and the account balance
+ * after it committed. The balance is absolute rather than a delta, so a client that missed an
+ * event is corrected by the next one. Events from concurrent commits can arrive out of order;
+ * version is the account's version after the write, so a client can ignore one older than the
+ * balance it already shows. The movements of one batch share their account's final balance and version.
+ */
+public class TransactionEvent {
+    private UUID accountId;
+    // Minor units (cents); sent as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+    private long version;
+    private Transaction transaction;
+
+    public TransactionEvent() {}
+
+    // Used by AccountRepository.findEventById; the transaction is set afterwards.
+    public TransactionEvent(UUID accountId, long balance, long version) {
+        this(accountId, balance, version, null);
+    }
+
+    public TransactionEvent(UUID accountId, long balance, long version, Transaction transaction) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.version = version;
+        this.transaction = transaction;
+    }
+
+    public UUID getAccountId() { return accountId; }
+    public void setAccountId(UUID accountId) { this.accountId = accountId; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public Transaction getTransaction() { return transaction; }
+    public void setTransaction(Transaction transaction) { this.transaction = transaction; }
+}
@@ -0,0 +1,27 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ * nextCursor is null when there are no older transactions left.
+ */
+public class TransactionPage {
+    private List<Transaction> items;
+    private String nextCursor;
+
+    public TransactionPage() {}
+
+    public TransactionPage(List<Transaction> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getItems() { return items; }
+    public void setItems(List<Transaction> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
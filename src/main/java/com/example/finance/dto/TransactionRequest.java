@@ -1,14 +1,21 @@
 package com.example.finance.dto;
 
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.util.UUID;
 
 public class TransactionRequest {
     private UUID accountId;
-    private double amount;
+    // Minor units (cents); sent and received as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
 
     public TransactionRequest() {}
 
-    public TransactionRequest(UUID accountId, double amount) {
+    public TransactionRequest(UUID accountId, long amount) {
         this.accountId = accountId;
         this.amount = amount;
     }
@@ -16,6 +23,6 @@ public class TransactionRequest {
     public UUID getAccountId() { return accountId; }
     public void setAccountId(UUID accountId) { this.accountId = accountId; }
 
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
 }
\ No newline at end of file
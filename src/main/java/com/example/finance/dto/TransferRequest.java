@@ -0,0 +1,33 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+public class TransferRequest {
+    private UUID fromAccountId;
+    private UUID toAccountId;
+    // Minor units (cents); sent and received as a decimal amount.
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
+
+    public TransferRequest() {}
+
+    public TransferRequest(UUID fromAccountId, UUID toAccountId, long amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    public UUID getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(UUID fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public UUID getToAccountId() { return toAccountId; }
+    public void setToAccountId(UUID toAccountId) { this.toAccountId = toAccountId; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+}
@@ -0,0 +1,31 @@
+package com.example.finance.dto;
+
+import com.example.finance.model.Transaction;
+
+import java.util.UUID;
+
+/**
+ * The two rows written by a transfer: the TRANSFER_OUT on the source account and the TRANSFER_IN on the destination.
+ */
+public class TransferResult {
+    private UUID transferId;
+    private Transaction debit;
+    private Transaction credit;
+
+    public TransferResult() {}
+
+    public TransferResult(UUID transferId, Transaction debit, Transaction credit) {
+        this.transferId = transferId;
+        this.debit = debit;
+        this.credit = credit;
+    }
+
+    public UUID getTransferId() { return transferId; }
+    public void setTransferId(UUID transferId) { this.transferId = transferId; }
+
+    public Transaction getDebit() { return debit; }
+    public void setDebit(Transaction debit) { this.debit = debit; }
+
+    public Transaction getCredit() { return credit; }
+    public void setCredit(Transaction credit) { this.credit = credit; }
+}
@@ -1,35 +1,52 @@
 package com.example.finance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.UUID;
 import java.util.List; // Import List for the collection of transactions
 import java.util.ArrayList; // Import ArrayList for initialization
 
 @Entity
+// Accounts by owner (the account list). Indexes declared on entities mirror db/migration, which owns the schema.
+@Table(indexes = @Index(name = "idx_account_user_id", columnList = "user_id"))
 public class Account {
 
     @Id
     @GeneratedValue
     private UUID id;
 
-    @ManyToOne
+    // Lazy and never serialized: API responses use AccountView, which carries just the username.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
     private User user;
 
     @Column(nullable = false)
     private String name;
 
-    private double balance;
+    // Minor units (cents); see Money.
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+
+    // Optimistic lock for writes that go through the entity (e.g. batch ingestion).
+    // The atomic credit/debit queries in AccountRepository bump it as well.
+    @Version
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long version;
     
-    // 1. FIX: Add One-to-Many relationship with Transaction for cascade delete
-    // We assume the foreign key column is defined in the Transaction model by 'account'.
-    // CascadeType.ALL ensures that if an Account is deleted, all associated Transactions are also deleted.
-    // orphanRemoval = true is good practice for managing child entities.
-    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Inverse side only; never loaded by the API. Deleting an account removes its transactions
+    // with one bulk DELETE (see AccountService.deleteAccount) rather than cascading row by row.
+    @OneToMany(mappedBy = "account")
+    @JsonIgnore
     private List<Transaction> transactions = new ArrayList<>(); 
 
     public Account() {}
 
-    public Account(User user, String name, double balance) {
+    public Account(User user, String name, long balance) {
         this.user = user;
         this.name = name;
         this.balance = balance;
@@ -45,8 +62,11 @@ public class Account {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     
     // New getter/setter for transactions (optional, but good practice)
     public List<Transaction> getTransactions() { return transactions; }
@@ -0,0 +1,69 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Checkpoint of an account's balance: the sum of every transaction dated at or before asOf.
+ * "Balance at time T" starts from the latest snapshot not after T and only scans the transactions
+ * between the two, instead of summing the whole history.
+ */
+@Entity
+@Immutable
+@Table(indexes = @Index(name = "idx_balance_snapshot_account_as_of", columnList = "account_id, asOf desc"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private Instant asOf;
+
+    // Minor units (cents); see Money.
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long balance;
+
+    // Number of transactions folded in since the previous snapshot.
+    private int transactionCount;
+
+    private Instant createdAt;
+
+    public BalanceSnapshot() {}
+
+    public BalanceSnapshot(Account account, Instant asOf, long balance, int transactionCount) {
+        this.account = account;
+        this.asOf = asOf;
+        this.balance = balance;
+        this.transactionCount = transactionCount;
+        this.createdAt = Instant.now();
+    }
+
+    // getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public Instant getAsOf() { return asOf; }
+    public void setAsOf(Instant asOf) { this.asOf = asOf; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public int getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(int transactionCount) { this.transactionCount = transactionCount; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,77 @@
+package com.example.finance.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per-account, per-day (UTC) totals, maintained in the same database transaction as each
+ * deposit and withdrawal. Monthly figures are derived from these rows, so analytics never scan Transaction.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollup_account_date", columnNames = {"account_id", "date"}))
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // Amounts are minor units (cents); see Money.
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long depositTotal;
+
+    private int depositCount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long withdrawTotal;
+
+    private int withdrawCount;
+
+    // Account balance after the last movement of the day.
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private long closingBalance;
+
+    public DailyRollup() {}
+
+    public DailyRollup(Account account, LocalDate date) {
+        this.account = account;
+        this.date = date;
+    }
+
+    // getters and setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public long getDepositTotal() { return depositTotal; }
+    public void setDepositTotal(long depositTotal) { this.depositTotal = depositTotal; }
+
+    public int getDepositCount() { return depositCount; }
+    public void setDepositCount(int depositCount) { this.depositCount = depositCount; }
+
+    public long getWithdrawTotal() { return withdrawTotal; }
+    public void setWithdrawTotal(long withdrawTotal) { this.withdrawTotal = withdrawTotal; }
+
+    public int getWithdrawCount() { return withdrawCount; }
+    public void setWithdrawCount(int withdrawCount) { this.withdrawCount = withdrawCount; }
+
+    public long getClosingBalance() { return closingBalance; }
+    public void setClosingBalance(long closingBalance) { this.closingBalance = closingBalance; }
+}
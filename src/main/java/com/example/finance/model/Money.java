@@ -0,0 +1,55 @@
+package com.example.finance.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is carried as a long count of minor units (cents), so balance arithmetic is exact and
+ * allocation-free. BigDecimal only appears at the edges: the database column (see MoneyConverter)
+ * and JSON (see MoneyJson), where amounts are still written as decimal numbers such as 12.50.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    public static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money overflow: " + a + " + " + b + " minor units");
+        }
+    }
+
+    public static long subtract(long a, long b) {
+        try {
+            return Math.subtractExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money overflow: " + a + " - " + b + " minor units");
+        }
+    }
+
+    /**
+     * Converts a decimal amount to minor units, rejecting values with more than two decimal places.
+     */
+    public static long fromDecimal(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid money amount: " + amount.toPlainString(), e);
+        }
+    }
+
+    /**
+     * Converts a stored decimal to minor units, rounding half-even. Used when reading rows written
+     * while balances were still floating point (e.g. 0.30000000000000004).
+     */
+    public static long fromStoredDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.finance.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores minor-unit amounts as decimal columns, so the database keeps holding values like 12.50.
+ * Applied explicitly with @Convert on money fields rather than auto-applied to every Long.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : Money.toDecimal(minorUnits);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.fromStoredDecimal(amount);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.finance.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Jackson (de)serializers for minor-unit money fields.
+ * Amounts travel as decimal numbers (12.5 or "12.50"), so the JSON contract is unchanged for clients.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {}
+
+    public static class Serializer extends StdSerializer<Long> {
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(Money.toDecimal(minorUnits));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BigDecimal amount;
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                try {
+                    amount = new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "not a decimal amount");
+                }
+            } else {
+                amount = p.getDecimalValue();
+            }
+            try {
+                return Money.fromDecimal(amount);
+            } catch (IllegalArgumentException e) {
+                return (Long) ctxt.handleWeirdNumberValue(Long.class, amount, "at most " + Money.SCALE + " decimal places are allowed");
+            }
+        }
+    }
+}
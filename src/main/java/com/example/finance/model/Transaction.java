@@ -4,12 +4,27 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonIgnore; // Import for the annotation
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
 
 @Entity
+// Append-only: rows are inserted once and never updated.
+@Immutable
+// Backs the keyset-paginated history query (newest first, id as tie-breaker), and Idempotency-Key
+// lookups that don't know the account (group commit).
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_date_id", columnList = "account_id, date desc, id"),
+        @Index(name = "idx_transaction_idempotency_key", columnList = "idempotency_key")},
+        // An Idempotency-Key can only produce one movement per account, even under concurrent retries.
+        uniqueConstraints = @UniqueConstraint(name = "uk_transaction_account_idempotency_key",
+                columnNames = {"account_id", "idempotency_key"}))
 public class Transaction {
 
+    // Time-ordered ids are generated client-side, so inserts stay JDBC-batchable.
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     private UUID id;
 
     // FIX: Added @JsonIgnore to prevent infinite recursion during JSON serialization.
@@ -18,15 +33,41 @@ public class Transaction {
     @JsonIgnore 
     private Account account;
 
-    private double amount;
-    private String type;
+    // Minor units (cents); see Money.
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
     
     // FIX: Added the date field for transaction timestamp
     private Instant date; 
 
+    // Running balance of the account right after this movement, in minor units.
+    // Only recorded in ledger mode (ledger.enabled); null for rows written without it.
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long balanceAfter;
+
+    // Content-derived key of the statement line this row was imported from; lets re-imports skip it.
+    @Column(unique = true)
+    @JsonIgnore
+    private UUID importRef;
+
+    // Shared by the TRANSFER_OUT and TRANSFER_IN rows of one transfer; null for other movements.
+    private UUID transferId;
+
+    // Client-supplied Idempotency-Key of the request that created this row, if any.
+    @Column(length = 64)
+    @JsonIgnore
+    private String idempotencyKey;
+
     public Transaction() {}
 
-    public Transaction(Account account, double amount, String type) {
+    public Transaction(Account account, long amount, TransactionType type) {
         this.account = account;
         this.amount = amount;
         this.type = type;
@@ -39,13 +80,25 @@ public class Transaction {
     public Account getAccount() { return account; }
     public void setAccount(Account account) { this.account = account; }
     
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
     
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
     
     // FIX: Getter and setter for the new date field
     public Instant getDate() { return date; }
     public void setDate(Instant date) { this.date = date; }
+
+    public Long getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(Long balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public UUID getImportRef() { return importRef; }
+    public void setImportRef(UUID importRef) { this.importRef = importRef; }
+
+    public UUID getTransferId() { return transferId; }
+    public void setTransferId(UUID transferId) { this.transferId = transferId; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 }
\ No newline at end of file
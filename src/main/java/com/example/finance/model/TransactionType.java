@@ -0,0 +1,23 @@
+package com.example.finance.model;
+
+public enum TransactionType {
+    DEPOSIT(true),
+    WITHDRAW(false),
+    // The two legs of a transfer between accounts; see Transaction.transferId.
+    TRANSFER_IN(true),
+    TRANSFER_OUT(false);
+
+    private final boolean credit;
+
+    TransactionType(boolean credit) {
+        this.credit = credit;
+    }
+
+    /** True if this type adds to the account balance. */
+    public boolean isCredit() { return credit; }
+
+    /** The effect of a movement of this type on the balance, in minor units. */
+    public long signed(long amount) {
+        return credit ? amount : -amount;
+    }
+}
@@ -1,12 +1,66 @@
 package com.example.finance.repository;
 
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.TransactionEvent;
 import com.example.finance.model.Account;
 import com.example.finance.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
     List<Account> findByUser(User user);
+
+    // Account list and detail projections: one statement each, without loading User or Transaction entities.
+    @Query("select new com.example.finance.dto.AccountView(a.id, a.name, a.balance, u.username) " +
+           "from Account a join a.user u where u.username = :username")
+    List<AccountView> findViewsByUsername(@Param("username") String username);
+
+    @Query("select new com.example.finance.dto.AccountView(a.id, a.name, a.balance, u.username) " +
+           "from Account a join a.user u where a.id = :id")
+    Optional<AccountView> findViewById(@Param("id") UUID id);
+
+    @Query("select a.balance from Account a where a.id = :id")
+    long findBalanceById(@Param("id") UUID id);
+
+    // Balance and version in one read, for the account's "transaction" event (see AccountEvents).
+    @Query("select new com.example.finance.dto.TransactionEvent(a.id, a.balance, a.version) " +
+           "from Account a where a.id = :id")
+    TransactionEvent findEventById(@Param("id") UUID id);
+
+    @Query("select a.user.username from Account a where a.id = :id")
+    Optional<String> findOwnerUsername(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") UUID id);
+
+    // Locks in id order, so writers locking overlapping sets of accounts can't deadlock each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query("select a.id from Account a")
+    List<UUID> findAllIds();
+
+    // Atomic balance changes: the database applies the delta under its row lock, so concurrent
+    // writers can't lose each other's updates. Both bump the version so entity-path writers
+    // holding a stale copy fail their optimistic check instead of overwriting the balance.
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 where a.id = :id")
+    int credit(@Param("id") UUID id, @Param("amount") long amount);
+
+    // Returns 0 when the account doesn't exist or the balance doesn't cover the amount.
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+           "where a.id = :id and a.balance >= :amount")
+    int debit(@Param("id") UUID id, @Param("amount") long amount);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+    Optional<BalanceSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(UUID accountId, Instant asOf);
+
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderByAsOfDesc(UUID accountId);
+
+    // Drops checkpoints that no longer hold once rows dated at or after 'from' are back-filled.
+    @Modifying
+    @Query("delete from BalanceSnapshot s where s.account.id = :accountId and s.asOf >= :from")
+    int deleteFrom(@Param("accountId") UUID accountId, @Param("from") Instant from);
+
+    @Modifying
+    @Query("delete from BalanceSnapshot s where s.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") UUID accountId);
+}
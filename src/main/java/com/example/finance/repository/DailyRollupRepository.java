@@ -0,0 +1,60 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, UUID> {
+    List<DailyRollup> findByAccountIdAndDateBetweenOrderByDateAsc(UUID accountId, LocalDate from, LocalDate to);
+
+    Optional<DailyRollup> findFirstByAccountIdAndDateLessThanOrderByDateDesc(UUID accountId, LocalDate date);
+
+    // Adds to an existing day row; the closing balance is read from the account row this
+    // transaction has just updated (and still holds locked). Returns 0 if the day has no row yet.
+    @Modifying
+    @Query("update DailyRollup r set " +
+           "r.depositTotal = r.depositTotal + :deposits, r.depositCount = r.depositCount + :depositCount, " +
+           "r.withdrawTotal = r.withdrawTotal + :withdrawals, r.withdrawCount = r.withdrawCount + :withdrawCount, " +
+           "r.closingBalance = (select a.balance from Account a where a.id = :accountId) " +
+           "where r.account.id = :accountId and r.date = :date")
+    int accumulate(@Param("accountId") UUID accountId,
+                   @Param("date") LocalDate date,
+                   @Param("deposits") long deposits,
+                   @Param("depositCount") int depositCount,
+                   @Param("withdrawals") long withdrawals,
+                   @Param("withdrawCount") int withdrawCount);
+
+    // As above, with the closing balance supplied by a caller that holds the account's new balance.
+    @Modifying
+    @Query("update DailyRollup r set " +
+           "r.depositTotal = r.depositTotal + :deposits, r.depositCount = r.depositCount + :depositCount, " +
+           "r.withdrawTotal = r.withdrawTotal + :withdrawals, r.withdrawCount = r.withdrawCount + :withdrawCount, " +
+           "r.closingBalance = :closingBalance " +
+           "where r.account.id = :accountId and r.date = :date")
+    int accumulate(@Param("accountId") UUID accountId,
+                   @Param("date") LocalDate date,
+                   @Param("deposits") long deposits,
+                   @Param("depositCount") int depositCount,
+                   @Param("withdrawals") long withdrawals,
+                   @Param("withdrawCount") int withdrawCount,
+                   @Param("closingBalance") long closingBalance);
+
+    // Moves the closing balance of every day after the given one, for movements imported into the past.
+    @Modifying
+    @Query("update DailyRollup r set r.closingBalance = r.closingBalance + :delta " +
+           "where r.account.id = :accountId and r.date > :after")
+    int shiftClosingBalancesAfter(@Param("accountId") UUID accountId,
+                                  @Param("after") LocalDate after,
+                                  @Param("delta") long delta);
+
+    @Modifying
+    @Query("delete from DailyRollup r where r.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") UUID accountId);
+}
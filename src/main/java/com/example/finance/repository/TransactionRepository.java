@@ -1,12 +1,93 @@
 package com.example.finance.repository;
 
+import com.example.finance.dto.LedgerEntry;
 import com.example.finance.model.Transaction;
 import com.example.finance.model.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     List<Transaction> findByAccount(Account account);
+
+    // Keyset pagination over the (account_id, date desc, id) index: newest first, id breaks ties.
+    @Query("select t from Transaction t where t.account = :account order by t.date desc, t.id asc")
+    List<Transaction> findHistoryFirstPage(@Param("account") Account account, Limit limit);
+
+    // "t.date <= :date" is implied by the OR but is what lets the index scan start at the cursor; without
+    // it the OR is only a filter and every page reads the account's range from the newest row.
+    @Query("select t from Transaction t where t.account = :account and t.date <= :date " +
+           "and (t.date < :date or (t.date = :date and t.id > :id)) " +
+           "order by t.date desc, t.id asc")
+    List<Transaction> findHistoryPageAfter(@Param("account") Account account,
+                                           @Param("date") Instant date,
+                                           @Param("id") UUID id,
+                                           Limit limit);
+
+    // Net effect on the balance of the transactions dated in (from, to]. Aggregates bypass
+    // MoneyConverter, so this is the raw decimal column sum; convert it with Money.fromStoredDecimal.
+    @Query("select coalesce(sum(case when t.type in (com.example.finance.model.TransactionType.DEPOSIT, " +
+           "com.example.finance.model.TransactionType.TRANSFER_IN) " +
+           "then t.amount else -t.amount end), 0) " +
+           "from Transaction t where t.account.id = :accountId and t.date > :from and t.date <= :to")
+    BigDecimal sumNetAmount(@Param("accountId") UUID accountId, @Param("from") Instant from, @Param("to") Instant to);
+
+    // Oldest-first ledger scan. (date asc, id desc) is the history index read backwards.
+    @Query("select new com.example.finance.dto.LedgerEntry(t.id, t.date, t.type, t.amount) from Transaction t " +
+           "where t.account.id = :accountId and t.date > :from and t.date <= :to " +
+           "order by t.date asc, t.id desc")
+    List<LedgerEntry> findLedgerEntries(@Param("accountId") UUID accountId,
+                                        @Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        Limit limit);
+
+    @Query("select new com.example.finance.dto.LedgerEntry(t.id, t.date, t.type, t.amount) from Transaction t " +
+           "where t.account.id = :accountId and t.date >= :date and t.date <= :to " +
+           "and (t.date > :date or (t.date = :date and t.id < :id)) " +
+           "order by t.date asc, t.id desc")
+    List<LedgerEntry> findLedgerEntriesAfter(@Param("accountId") UUID accountId,
+                                             @Param("date") Instant date,
+                                             @Param("id") UUID id,
+                                             @Param("to") Instant to,
+                                             Limit limit);
+
+    Optional<Transaction> findByAccountIdAndIdempotencyKey(UUID accountId, String idempotencyKey);
+
+    List<Transaction> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // Set-based delete of an account's whole history; no rows are loaded into the persistence context.
+    @Modifying
+    @Query("delete from Transaction t where t.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") UUID accountId);
+
+    @Query("select t.importRef from Transaction t where t.importRef in :refs")
+    Set<UUID> findExistingImportRefs(@Param("refs") Collection<UUID> refs);
+
+    // Forward-only cursor for exports: rows are fetched from the database 1000 at a time and, being
+    // DTO projections, never enter the persistence context. Must be consumed inside a transaction.
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.example.finance.dto.LedgerEntry(t.id, t.date, t.type, t.amount, t.balanceAfter) " +
+           "from Transaction t where t.account.id = :accountId and t.date >= :from and t.date < :to " +
+           "order by t.date asc, t.id desc")
+    Stream<LedgerEntry> streamLedgerEntries(@Param("accountId") UUID accountId,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to);
 }
\ No newline at end of file
@@ -5,10 +5,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,12 +20,14 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -32,41 +36,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
                                     throws ServletException, IOException {
 
-        // Log the start of the filter operation
-        System.out.println("[JWT Filter] Processing request for URI: " + request.getRequestURI());
-
         // We rely on SecurityConfig to permit /api/auth/**. 
         // No need for redundant path skipping here, making the filter cleaner.
         
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("[JWT Filter] No JWT token found in header. Continuing chain.");
+            log.debug("No bearer token on {} {}", request.getMethod(), request.getRequestURI());
             filterChain.doFilter(request, response);
             return;
         }
 
         String token = authHeader.substring(7);
-        String username = null;
-        
-        try {
-            username = jwtUtil.getUsernameFromToken(token);
-            System.out.println("[JWT Filter] Extracted username from token: " + username);
-        } catch (Exception e) {
-            // Token is malformed or expired (JwtUtil.validateToken handles the catch block and logs it)
-            System.err.println("[JWT Filter] Could not extract username or token is invalid/expired: " + e.getMessage());
-        }
 
-        // Only process if username is found AND no authentication is currently set (to avoid overwriting)
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // Only process if no authentication is currently set (to avoid overwriting)
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            // One parse and signature check per token; repeats of a recently verified token skip it entirely.
+            String username = jwtUtil.getVerifiedUsername(token);
+
+            if (username != null) {
+                // Cached, so most requests don't touch the user table.
+                UserDetails userDetails;
+                try {
+                    userDetails = principalCache.get(username);
+                } catch (UsernameNotFoundException e) {
+                    // A token can outlive its user; left unauthenticated, protected endpoints answer 401.
+                    log.debug("Token for unknown user {} on {} {}", username, request.getMethod(), request.getRequestURI());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-            // FIX: Use jwtUtil.validateToken to do the signature check
-            if (jwtUtil.validateToken(token)) {
-                
-                System.out.println("[JWT Filter] Token validated for user: " + username);
-                
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -74,19 +74,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 
                 // CRITICAL STEP: Set the authentication in the security context
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                System.out.println("[JWT Filter] **SUCCESS** SecurityContext set for user: " + username);
+                log.debug("Authenticated {} for {} {}", username, request.getMethod(), request.getRequestURI());
 
             } else {
-                System.out.println("[JWT Filter] Token validation failed (Expired/Bad Signature).");
+                // Protected endpoints will answer 401.
+                log.debug("Invalid or expired token on {} {}", request.getMethod(), request.getRequestURI());
             }
         }
-        
-        // Log the end state of the security context before passing it on
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("[JWT Filter] Context is authenticated. Passing to next filter.");
-        } else {
-            System.out.println("[JWT Filter] Context is NOT authenticated. Passing to next filter. (This will lead to 401 if endpoint is protected!)");
-        }
 
         filterChain.doFilter(request, response);
     }
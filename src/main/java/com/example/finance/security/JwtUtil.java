@@ -1,12 +1,23 @@
 package com.example.finance.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets; 
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.Base64; 
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value; 
 import org.springframework.stereotype.Component;
@@ -14,20 +25,66 @@ import org.springframework.stereotype.Component;
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     private final Key key; 
 
     private final long expiration = 24 * 60 * 60 * 1000;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    // Immutable and thread-safe: built once instead of per call.
+    private final JwtParser parser;
+
+    // Recently verified tokens, keyed by the SHA-256 of the token so raw bearer tokens aren't kept in
+    // memory. Each entry expires together with its token, so a hit never outlives the token's validity.
+    private final Cache<String, VerifiedToken> verified;
+
+    // "security.jwt.verify" timings, by outcome: answered from the cache, verified, or rejected.
+    private final Timer cachedTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${security.jwt.cache-size:10000}") long cacheSize,
+                   MeterRegistry meterRegistry) {
 
         try {
             byte[] keyBytes = Base64.getDecoder().decode(secret.getBytes(StandardCharsets.UTF_8));
             this.key = Keys.hmacShaKeyFor(keyBytes);
-            System.out.println("[JWT Util] Key successfully initialized from persistent Base64 secret.");
+            log.info("JWT signing key initialized from Base64 secret");
         } catch (IllegalArgumentException e) {
-            System.err.println("[JWT Util ERROR] Secret key must be a valid Base64 encoded string. Check .env.production.");
+            log.error("JWT secret must be a valid Base64 encoded string; check .env.production");
             throw new RuntimeException("Invalid JWT secret configuration.", e);
         }
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.cachedTimer = verifyTimer(meterRegistry, "cached");
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.verify")
+                .description("Bearer token verification")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     public String generateToken(String username) {
@@ -39,25 +96,56 @@ public class JwtUtil {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Parses the token and checks its signature and expiry in one pass.
+     * @throws JwtException if the token is malformed, forged or expired.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Returns the username of a valid token, or null if the token is invalid or expired.
+     * Tokens verified before are answered from the cache without repeating the signature check.
+     */
+    public String getVerifiedUsername(String token) {
+        long start = System.nanoTime();
+        String hash = sha256(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached.username;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = parseVerifiedClaims(token);
+            if (claims.getExpiration() != null) {
+                verified.put(hash, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            }
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims.getSubject();
         } catch (JwtException | IllegalArgumentException e) {
-            System.err.println("[JWT Validation Error] Token rejected: " + e.getMessage());
-            return false;
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("JWT rejected: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        final String username;
+        final long expiresAtMillis;
+
+        VerifiedToken(String username, long expiresAtMillis) {
+            this.username = username;
+            this.expiresAtMillis = expiresAtMillis;
         }
     }
 }
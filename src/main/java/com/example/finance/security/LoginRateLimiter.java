@@ -0,0 +1,104 @@
+package com.example.finance.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket limits on login attempts, one bucket per username and one per client IP.
+ *
+ * Each bucket holds up to `capacity` attempts and refills at `refill-per-minute`. An attempt must take a
+ * token from both buckets, so a credential-stuffing wave is throttled whether it spreads over many
+ * accounts from one address or over many addresses against one account. Rejected attempts get 429
+ * before any password hashing happens. Idle buckets are dropped once they would have refilled anyway.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit perUsername;
+    private final Limit perIp;
+    private final Cache<String, TokenBucket> buckets;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${security.login.per-username.capacity:5}") int usernameCapacity,
+                            @Value("${security.login.per-username.refill-per-minute:5}") int usernameRefill,
+                            @Value("${security.login.per-ip.capacity:20}") int ipCapacity,
+                            @Value("${security.login.per-ip.refill-per-minute:20}") int ipRefill,
+                            @Value("${security.login.max-tracked-keys:100000}") long maxKeys) {
+        this.perUsername = new Limit(usernameCapacity, usernameRefill);
+        this.perIp = new Limit(ipCapacity, ipRefill);
+        Duration idle = Duration.ofNanos(Math.max(perUsername.fullRefillNanos(), perIp.fullRefillNanos()));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    /**
+     * Takes one attempt from both the username's and the IP's bucket.
+     * @throws ResponseStatusException 429 if either bucket is empty.
+     */
+    public void acquire(String username, String ip) {
+        boolean ipAllowed = buckets.get("ip:" + ip, key -> new TokenBucket(perIp)).tryTake();
+        boolean userAllowed = ipAllowed
+                && buckets.get("user:" + String.valueOf(username).toLowerCase(Locale.ROOT), key -> new TokenBucket(perUsername)).tryTake();
+        if (!userAllowed) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, try again later.");
+        }
+    }
+
+    private static final class Limit {
+        final int capacity;
+        final double tokensPerNano;
+
+        Limit(int capacity, int refillPerMinute) {
+            if (capacity <= 0 || refillPerMinute <= 0) {
+                throw new IllegalArgumentException("Login rate limit capacity and refill must be positive.");
+            }
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        }
+
+        long fullRefillNanos() {
+            return (long) Math.ceil(capacity / tokensPerNano);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final Limit limit;
+        // A ReentrantLock rather than synchronized, which would pin a virtual thread to its carrier.
+        private final ReentrantLock lock = new ReentrantLock();
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        boolean tryTake() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                tokens = Math.min(limit.capacity, tokens + (now - refilledAt) * limit.tokensPerNano);
+                refilledAt = now;
+                if (tokens < 1) {
+                    return false;
+                }
+                tokens -= 1;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
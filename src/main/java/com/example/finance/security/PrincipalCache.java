@@ -0,0 +1,81 @@
+package com.example.finance.security;
+
+import com.example.finance.config.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the principal of an already-verified token without a user-table query per request.
+ *
+ * Principals are cached by username, bounded by size and TTL, and hold no password hash. Code that
+ * changes or deletes a user must call {@link #evict(String)} inside that transaction; the entry is then
+ * dropped on commit. As in AccountCache, a load racing an eviction only stores its result if no
+ * eviction happened since it began, so eviction never waits on a load that needs a pooled connection.
+ * Hit and miss counts are published as the "security.principals" cache metrics.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> principals;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
+
+    /**
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user no longer exists.
+     */
+    public UserDetails get(String username) {
+        UserDetails cached = principals.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation.get();
+        UserDetails loaded = userDetailsService.loadUserByUsername(username);
+        UserDetails principal = User.withUsername(loaded.getUsername())
+                .password("")
+                .authorities(loaded.getAuthorities())
+                .accountExpired(!loaded.isAccountNonExpired())
+                .accountLocked(!loaded.isAccountNonLocked())
+                .credentialsExpired(!loaded.isCredentialsNonExpired())
+                .disabled(!loaded.isEnabled())
+                .build();
+        principals.asMap().compute(username, (key, current) -> generation.get() == started ? principal : current);
+        return principal;
+    }
+
+    /**
+     * Drops a user's cached principal when the current transaction commits, or right away outside one.
+     */
+    public void evict(String username) {
+        AfterCommit.run(() -> evictNow(username));
+    }
+
+    private void evictNow(String username) {
+        generation.incrementAndGet();
+        principals.invalidate(username);
+    }
+}
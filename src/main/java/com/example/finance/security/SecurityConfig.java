@@ -1,6 +1,8 @@
 package com.example.finance.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,7 +10,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -21,22 +22,23 @@ import java.util.Arrays;
 @Configuration
 public class SecurityConfig {
 
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
     private final JwtUtil jwtUtil;
 
-    public SecurityConfig(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
-        this.userDetailsService = userDetailsService;
+    public SecurityConfig(PrincipalCache principalCache, JwtUtil jwtUtil) {
+        this.principalCache = principalCache;
         this.jwtUtil = jwtUtil;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        // Changing the strength re-hashes existing passwords on each user's next login (see AuthService).
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        return new JwtAuthenticationFilter(jwtUtil, principalCache);
     }
 
     @Bean
@@ -69,7 +71,12 @@ public class SecurityConfig {
             .and()
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() 
+                // The original request was already authorized; async dispatches (streaming exports)
+                // and error dispatches carry no token of their own in this stateless setup.
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()          
+                // Only the health check is public; Prometheus scrapes authenticate like /actuator/metrics reads.
+                .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/api/accounts/**", "/api/transactions/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -0,0 +1,118 @@
+package com.example.finance.service;
+
+import com.example.finance.config.AfterCommit;
+import com.example.finance.dto.AccountView;
+import com.example.finance.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user cache of account lists (balances included), bounded by size and TTL.
+ *
+ * Every write that changes an account evicts its owner's list once the write's database transaction
+ * commits. A list read concurrently with a write must not be cached after that eviction, yet eviction
+ * can't wait for a load in flight (the writer still holds its pooled connection after commit, which the
+ * load may need). So each user maps to a generation stripe that eviction bumps before removing the entry,
+ * and a load only stores its result if its stripe's generation is unchanged since the load began.
+ * To find an account's owner cheaply, account ids are mapped to usernames in a second cache; an
+ * account never changes owner, so an entry missing from it is simply looked up again.
+ * Lists are loaded outside any read-only transaction, so with a read replica configured they still come
+ * from the primary: a list filled from a lagging replica would serve its stale balances for the whole TTL.
+ * Hit, miss and eviction counts are published as the "accounts.by-user" cache metrics.
+ */
+@Component
+public class AccountCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, List<AccountView>> byUser;
+    private final Cache<UUID, String> owners;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    public AccountCache(AccountRepository accountRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${accounts.cache.max-users:10000}") long maxUsers,
+                        @Value("${accounts.cache.ttl:PT5M}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.byUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxUsers * 10)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUser, "accounts.by-user");
+    }
+
+    public List<AccountView> getAccounts(String username) {
+        List<AccountView> cached = byUser.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(username);
+        long generation = generations.get(stripe);
+        List<AccountView> accounts = List.copyOf(accountRepository.findViewsByUsername(username));
+        for (AccountView account : accounts) {
+            owners.put(account.getId(), username);
+        }
+        // Atomic with respect to evictNow's invalidate of the same key, which follows its increment:
+        // either this sees the new generation, or the invalidate removes what this stored.
+        byUser.asMap().compute(username, (key, current) -> generations.get(stripe) == generation ? accounts : current);
+        return accounts;
+    }
+
+    /**
+     * Evicts the cached list holding this account when the current transaction commits.
+     * Call it inside the transaction that changes the account, while the account still exists.
+     */
+    public void evictAccount(UUID accountId) {
+        String owner = ownerOf(accountId);
+        if (owner != null) {
+            evictUser(owner);
+        }
+    }
+
+    /**
+     * The username owning this account, or null if there's no such account.
+     */
+    public String ownerOf(UUID accountId) {
+        // Not owners.get(id, loader): that runs the query inside the map's lock, pinning a virtual thread.
+        String owner = owners.getIfPresent(accountId);
+        if (owner == null) {
+            owner = accountRepository.findOwnerUsername(accountId).orElse(null);
+            if (owner != null) {
+                owners.put(accountId, owner);
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Evicts a user's cached list when the current transaction commits, or right away outside one.
+     */
+    public void evictUser(String username) {
+        AfterCommit.run(() -> evictNow(username));
+    }
+
+    private void evictNow(String username) {
+        generations.incrementAndGet(stripe(username));
+        byUser.invalidate(username);
+    }
+
+    private static int stripe(String username) {
+        return Math.floorMod(username.hashCode(), GENERATION_STRIPES);
+    }
+}
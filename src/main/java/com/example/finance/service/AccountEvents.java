@@ -0,0 +1,273 @@
+package com.example.finance.service;
+
+import com.example.finance.config.AfterCommit;
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.TransactionEvent;
+import com.example.finance.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-user streams of account changes, served as server-sent events by GET /api/accounts/events.
+ *
+ * Events are queued when the writing database transaction commits, so clients never see a rolled-back
+ * change. Each stream has its own bounded queue (accounts.events.buffer-size) drained by its own virtual
+ * thread, so a slow client only holds up itself. When its queue is full, everything queued is dropped
+ * for a single "resync" event, which tells the client to refetch rather than apply the deltas it missed.
+ * A user may hold accounts.events.max-streams-per-user streams; opening another closes the oldest.
+ * Event names: "ready" (stream open; fetch the snapshot now), "transaction", "account-created",
+ * "account-deleted" and "resync". Open streams are published as the "accounts.events.streams" gauge and
+ * overflows as the "accounts.events.resyncs" counter.
+ */
+@Component
+public class AccountEvents {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountEvents.class);
+
+    private final AccountCache accountCache;
+    private final int bufferSize;
+    private final int maxStreamsPerUser;
+    private final Duration timeout;
+    private final Map<String, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter resyncs;
+
+    @Autowired
+    public AccountEvents(AccountCache accountCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${accounts.events.buffer-size:64}") int bufferSize,
+                         @Value("${accounts.events.max-streams-per-user:5}") int maxStreamsPerUser,
+                         @Value("${accounts.events.timeout:PT30M}") Duration timeout) {
+        this.accountCache = accountCache;
+        this.bufferSize = bufferSize;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.timeout = timeout;
+        Gauge.builder("accounts.events.streams", open, AtomicInteger::get)
+                .description("Open account event streams")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("accounts.events.resyncs")
+                .description("Streams whose queue overflowed and were told to resync")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the user's account changes. It ends after accounts.events.timeout; clients
+     * reconnect and refetch on the next "ready".
+     */
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Stream stream = new Stream(username, emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(stream));
+
+        List<Stream> displaced = new ArrayList<>();
+        streams.compute(username, (key, current) -> {
+            List<Stream> next = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            next.add(stream);
+            while (next.size() > maxStreamsPerUser) {
+                displaced.add(next.remove(0));
+            }
+            return List.copyOf(next);
+        });
+        open.incrementAndGet();
+        displaced.forEach(Stream::close);
+        stream.offer(new Event("ready", ""));
+        return stream.emitter;
+    }
+
+    /**
+     * Publishes a posted transaction when the current transaction commits, if its account's owner has
+     * a stream open. The event (balance and version) is only built in that case, so writes nobody
+     * watches pay nothing.
+     */
+    public void transactionPosted(Transaction txn, Supplier<TransactionEvent> event) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        UUID accountId = txn.getAccount().getId();
+        String owner = accountCache.ownerOf(accountId);
+        if (owner != null && streams.containsKey(owner)) {
+            publish(owner, new Event("transaction", event.get()));
+        }
+    }
+
+    public void accountCreated(AccountView account) {
+        publish(account.getUsername(), new Event("account-created", account));
+    }
+
+    /**
+     * Publishes an account's deletion when the current transaction commits.
+     * Call it inside the deleting transaction, while the account still exists.
+     */
+    public void accountDeleted(UUID accountId) {
+        String owner = accountCache.ownerOf(accountId);
+        if (owner != null) {
+            publish(owner, new Event("account-deleted", Map.of("id", accountId)));
+        }
+    }
+
+    /**
+     * Tells the owner's streams to refetch when the current transaction commits; for bulk changes
+     * (statement imports) that aren't worth sending row by row.
+     */
+    public void resync(UUID accountId) {
+        String owner = streams.isEmpty() ? null : accountCache.ownerOf(accountId);
+        if (owner != null) {
+            publish(owner, new Event("resync", ""));
+        }
+    }
+
+    // A comment line on every idle stream keeps proxies from timing it out and finds dead connections.
+    @Scheduled(fixedDelayString = "${accounts.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Stream> userStreams : streams.values()) {
+            for (Stream stream : userStreams) {
+                if (stream.queue.isEmpty()) {
+                    stream.offer(Event.HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    // Streams never finish on their own, so graceful shutdown would wait out its whole timeout for them.
+    // Context close is announced before the web server starts draining requests.
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        streams.values().forEach(userStreams -> userStreams.forEach(Stream::close));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void publish(String username, Event event) {
+        AfterCommit.run(() -> {
+            List<Stream> userStreams = streams.get(username);
+            if (userStreams != null) {
+                userStreams.forEach(stream -> stream.offer(event));
+            }
+        });
+    }
+
+    private void remove(Stream stream) {
+        if (!stream.closed.compareAndSet(false, true)) {
+            return;
+        }
+        open.decrementAndGet();
+        streams.computeIfPresent(stream.username, (key, current) -> {
+            List<Stream> next = new ArrayList<>(current);
+            next.remove(stream);
+            return next.isEmpty() ? null : List.copyOf(next);
+        });
+    }
+
+    // Payloads are serialized when sent, on the stream's sender thread; a null name marks a heartbeat.
+    private record Event(String name, Object data) {
+        static final Event HEARTBEAT = new Event(null, null);
+    }
+
+    private final class Stream {
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Stream(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // The client isn't keeping up; what it missed is replaced by one resync.
+                queue.clear();
+                if (!overflowed) {
+                    overflowed = true;
+                    resyncs.increment();
+                }
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // At most one drain per stream runs at a time; a blocked write only parks this virtual thread.
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    Event event;
+                    if (overflowed) {
+                        overflowed = false;
+                        event = new Event("resync", "");
+                    } else if ((event = queue.poll()) == null) {
+                        break;
+                    }
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the emitter already completed.
+                log.debug("Closing account event stream for {}: {}", username, e.toString());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An offer that lost the race with the release above would otherwise sit until the next event.
+            if (!closed.get() && (overflowed || !queue.isEmpty()) && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event == Event.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        void close() {
+            remove(this);
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed.
+            }
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.finance.service;
 
+import com.example.finance.dto.AccountView;
 import com.example.finance.model.Account;
 import com.example.finance.model.User;
 import com.example.finance.repository.AccountRepository;
+import com.example.finance.repository.BalanceSnapshotRepository;
+import com.example.finance.repository.DailyRollupRepository;
+import com.example.finance.repository.TransactionRepository;
 import com.example.finance.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,62 +20,89 @@ import java.util.UUID;
 @Service
 public class AccountService {
 
+    private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+
     private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final DailyRollupRepository rollupRepository;
+    private final AccountCache accountCache;
+    private final AccountEvents accountEvents;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository) {
+    public AccountService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                          UserRepository userRepository, BalanceSnapshotRepository snapshotRepository,
+                          DailyRollupRepository rollupRepository, AccountCache accountCache,
+                          AccountEvents accountEvents) {
         this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.rollupRepository = rollupRepository;
+        this.accountCache = accountCache;
+        this.accountEvents = accountEvents;
     }
 
-    public Account createAccount(String username, String accountName) {
+    public AccountView createAccount(String username, String accountName) {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         Account account = new Account();
         account.setUser(user);
         account.setName(accountName);
-        account.setBalance(0.0);
+        account.setBalance(0);
 
-        System.out.println("[Service] Creating account with name: " + accountName);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountCache.evictUser(username);
+        log.info("Created account {} for {}", saved.getId(), username);
+        AccountView view = new AccountView(saved.getId(), saved.getName(), saved.getBalance(), user.getUsername());
+        accountEvents.accountCreated(view);
+        return view;
     }
 
     /**
      * Deletes an account by ID.
-     * Checks if the account has a zero balance before deletion and cascades deletion to transactions.
+     * Checks if the account has a zero balance before deletion, then removes its transactions, snapshots
+     * and rollups with one bulk DELETE each, so closing a long-lived account doesn't load its history.
      * @param id The UUID of the account to delete.
      * @throws IllegalStateException if the account balance is not zero.
      */
+    @Transactional
     public void deleteAccount(UUID id) {
-        Account account = accountRepository.findById(id)
+        // Locked so a deposit can't land between the balance check and the delete.
+        Account account = accountRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Account not found with ID: " + id));
 
         // FIX: 1. Prevent deletion if balance is non-zero (Business Rule)
         // This addresses the user request for requiring fund withdrawal first.
-        if (account.getBalance() != 0.0) {
+        if (account.getBalance() != 0) {
             // Throw an exception that the controller can catch and return an appropriate HTTP status code (e.g., 409 Conflict)
             throw new IllegalStateException("Cannot delete account with a non-zero balance. Please withdraw all funds first.");
         }
         
         // FIX: 2. Proceed with deletion. 
-        // Thanks to CascadeType.ALL on the 'transactions' collection in the Account Canvas, 
-        // related Transaction records will be deleted automatically before the Account is deleted, 
-        // resolving the foreign key constraint violation (SQLState: 23503).
+        // Rows referencing the account go first, resolving the foreign key constraint violation (SQLState: 23503).
+        accountCache.evictAccount(id);
+        accountEvents.accountDeleted(id);
+        transactionRepository.deleteByAccountId(id);
+        snapshotRepository.deleteByAccountId(id);
+        rollupRepository.deleteByAccountId(id);
         accountRepository.delete(account);
-        System.out.println("[Service] Deleted account with ID: " + id);
+        log.info("Deleted account {}", id);
     }
 
 
-    public List<Account> getAccounts(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return accountRepository.findByUser(user);
+    /**
+     * Lists a user's accounts, from AccountCache when possible, otherwise with a single query.
+     */
+    public List<AccountView> getAccounts(String username) {
+        return accountCache.getAccounts(username);
     }
 
-    public Account getAccount(UUID id) {
-        return accountRepository.findById(id)
+    @Transactional(readOnly = true)
+    public AccountView getAccount(UUID id) {
+        return accountRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
     }
 }
\ No newline at end of file
@@ -3,9 +3,12 @@ package com.example.finance.service;
 import com.example.finance.model.User;
 import com.example.finance.repository.UserRepository;
 import com.example.finance.security.JwtUtil;
+import com.example.finance.security.PrincipalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -14,9 +17,12 @@ import java.util.regex.Pattern;
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
 
     // Define the strong password pattern once
     // 8+ chars, 1 uppercase, 1 lowercase, 1 number, 1 special char (@$!%*?&)
@@ -25,10 +31,12 @@ public class AuthService {
 
 
     @Autowired
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashing, JwtUtil jwtUtil,
+                       PrincipalCache principalCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -51,15 +59,33 @@ public class AuthService {
         }
         // ----------------------------------------------------------------
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashing.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
     public String login(User user) {
         Optional<User> existing = userRepository.findByUsername(user.getUsername());
-        if (existing.isPresent() && passwordEncoder.matches(user.getPassword(), existing.get().getPassword())) {
+        if (existing.isPresent() && passwordHashing.matches(user.getPassword(), existing.get().getPassword())) {
+            rehashIfNeeded(existing.get(), user.getPassword());
             return jwtUtil.generateToken(existing.get().getUsername());
         }
         throw new RuntimeException("Invalid credentials");
     }
-}
\ No newline at end of file
+
+    /**
+     * Re-hashes the password at the current BCrypt cost (security.bcrypt.strength) if it was stored
+     * with a different one. Best effort: when the hashing pool is saturated the upgrade waits for a later login.
+     */
+    private void rehashIfNeeded(User stored, String rawPassword) {
+        if (!passwordHashing.needsRehash(stored.getPassword())) {
+            return;
+        }
+        try {
+            stored.setPassword(passwordHashing.encode(rawPassword));
+            userRepository.save(stored);
+            principalCache.evict(stored.getUsername());
+        } catch (ResponseStatusException e) {
+            log.debug("Password rehash deferred for {}: hashing pool busy", stored.getUsername());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.finance.service;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A deposit or withdrawal waiting in the group-commit queue.
+ * The writer records its outcome while applying the group and completes the future only after the commit.
+ */
+public final class GroupCommitRequest {
+
+    private final UUID accountId;
+    private final TransactionType type;
+    private final long amount;
+    private final String idempotencyKey;
+    private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+
+    private Transaction result;
+    private RuntimeException error;
+
+    GroupCommitRequest(UUID accountId, TransactionType type, long amount, String idempotencyKey) {
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public UUID getAccountId() { return accountId; }
+    public TransactionType getType() { return type; }
+    public long getAmount() { return amount; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+
+    CompletableFuture<Transaction> getFuture() { return future; }
+
+    void succeed(Transaction result) {
+        this.result = result;
+        this.error = null;
+    }
+
+    void fail(RuntimeException error) {
+        this.result = null;
+        this.error = error;
+    }
+
+    // Called once the group's database transaction has committed (or been given up on).
+    void complete() {
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.finance.service;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional group-commit pipeline for deposits and withdrawals (transactions.group-commit.enabled).
+ *
+ * Callers enqueue their write and block; a single writer thread drains the queue whenever it holds
+ * max-batch-size requests or the oldest has waited max-latency, and applies the whole group in one
+ * database transaction via TransactionService.applyGroup. Many requests then share one commit instead
+ * of paying a commit each, which is what bounds throughput on the direct path. Each caller is released
+ * only after the group has committed. A full queue rejects new writes with 503 rather than queueing
+ * without bound, as does a caller still waiting after submit-timeout or arriving during shutdown.
+ */
+@Service
+public class GroupCommitService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitService.class);
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final TransactionService transactionService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxLatency;
+    private final Duration submitTimeout;
+    private final BlockingQueue<GroupCommitRequest> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public GroupCommitService(TransactionService transactionService,
+                              @Value("${transactions.group-commit.enabled:false}") boolean enabled,
+                              @Value("${transactions.group-commit.max-batch-size:200}") int maxBatchSize,
+                              @Value("${transactions.group-commit.max-latency:5ms}") Duration maxLatency,
+                              @Value("${transactions.group-commit.queue-capacity:10000}") int queueCapacity,
+                              @Value("${transactions.group-commit.submit-timeout:10s}") Duration submitTimeout) {
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatency = maxLatency;
+        this.submitTimeout = submitTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Stops accepting writes and lets the writer commit whatever is still queued.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Queues a deposit or withdrawal and waits until the group containing it has committed.
+     * Fails with the same exceptions as the direct TransactionService methods, or with 503 if the write
+     * can't be queued or hasn't committed within submit-timeout. In the latter case it may still commit,
+     * so clients should retry with the same Idempotency-Key.
+     */
+    public Transaction submit(UUID accountId, TransactionType type, long amount, String idempotencyKey) {
+        GroupCommitRequest request = new GroupCommitRequest(accountId, type, amount, idempotencyKey);
+        if (!running || !queue.offer(request)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending writes, try again shortly.");
+        }
+        // Shutdown may have begun after the check above, and the writer may already have drained the queue
+        // for the last time; taking the request back means nobody is left waiting on it.
+        if (!running && queue.remove(request)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down, try again shortly.");
+        }
+        try {
+            return request.getFuture().orTimeout(submitTimeout.toNanos(), TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write did not complete in time, retry with the same Idempotency-Key.");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void drain() {
+        List<GroupCommitRequest> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                GroupCommitRequest first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxLatency.toNanos();
+                while (group.size() < maxBatchSize) {
+                    // Take whatever is already waiting without blocking, then wait out the rest of the window.
+                    if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    GroupCommitRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                group.clear();
+            }
+        }
+        // Writes are only left behind if the writer was interrupted; release their callers.
+        GroupCommitRequest abandoned;
+        while ((abandoned = queue.poll()) != null) {
+            abandoned.fail(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down, try again shortly."));
+            abandoned.complete();
+        }
+    }
+
+    private void commit(List<GroupCommitRequest> group) {
+        try {
+            transactionService.applyGroup(group);
+        } catch (RuntimeException e) {
+            // The whole group was rolled back (e.g. a dropped connection); apply each write on its own
+            // so one bad request or a transient failure doesn't fail everyone queued with it.
+            log.warn("Group of {} failed, retrying individually: {}", group.size(), e.getMessage());
+            for (GroupCommitRequest request : group) {
+                try {
+                    request.succeed(request.getType() == TransactionType.DEPOSIT
+                            ? transactionService.deposit(request.getAccountId(), request.getAmount(), request.getIdempotencyKey())
+                            : transactionService.withdraw(request.getAccountId(), request.getAmount(), request.getIdempotencyKey()));
+                } catch (RuntimeException ex) {
+                    request.fail(ex);
+                }
+            }
+        }
+        for (GroupCommitRequest request : group) {
+            request.complete();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.finance.service;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import com.example.finance.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Makes deposits and withdrawals safe to retry with an Idempotency-Key header.
+ *
+ * The key is stored on the Transaction row under a unique (account, key) constraint, which is what
+ * guarantees a single movement per key. A bounded in-memory cache with TTL sits in front of it, so a
+ * retry of a recent request is answered without touching the database at all; older retries cost one
+ * indexed lookup. Concurrent requests with the same key race on the constraint: the loser's database
+ * transaction is rolled back and it returns the winner's Transaction.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final TransactionRepository transactionRepository;
+    private final Cache<String, Transaction> recent;
+
+    @Autowired
+    public IdempotencyService(TransactionRepository transactionRepository,
+                              @Value("${transactions.idempotency.cache-size:100000}") long cacheSize,
+                              @Value("${transactions.idempotency.cache-ttl:PT24H}") Duration cacheTtl) {
+        this.transactionRepository = transactionRepository;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Runs the write once per (account, key) and returns its Transaction; repeats return the stored one.
+     * @param write Performs the movement, tagging its row with the key; must run in its own database transaction.
+     * @throws IllegalArgumentException if the key was already used for a different movement on this account.
+     */
+    public Transaction execute(UUID accountId, String key, TransactionType type, long amount, Supplier<Transaction> write) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String cacheKey = accountId + ":" + key;
+
+        Transaction previous = recent.getIfPresent(cacheKey);
+        if (previous == null) {
+            previous = transactionRepository.findByAccountIdAndIdempotencyKey(accountId, key).orElse(null);
+        }
+        if (previous == null) {
+            try {
+                previous = write.get();
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race to a concurrent request with the same key; answer with its result.
+                Optional<Transaction> winner = transactionRepository.findByAccountIdAndIdempotencyKey(accountId, key);
+                if (winner.isEmpty()) {
+                    throw e;
+                }
+                previous = winner.get();
+            }
+        }
+        if (previous.getType() != type || previous.getAmount() != amount) {
+            throw new IllegalArgumentException("Idempotency-Key '" + key + "' was already used for a different request.");
+        }
+        recent.put(cacheKey, previous);
+        return previous;
+    }
+}
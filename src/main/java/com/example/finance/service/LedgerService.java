@@ -0,0 +1,116 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.LedgerEntry;
+import com.example.finance.model.Account;
+import com.example.finance.model.BalanceSnapshot;
+import com.example.finance.model.Money;
+import com.example.finance.repository.AccountRepository;
+import com.example.finance.repository.BalanceSnapshotRepository;
+import com.example.finance.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Point-in-time balances over the append-only transaction ledger.
+ * Snapshots checkpoint the running balance every ledger.snapshot.interval transactions, so
+ * "balance as of T" costs one snapshot lookup plus a scan of at most about one interval of rows.
+ */
+@Service
+public class LedgerService {
+
+    private static final int SCAN_CHUNK_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final int snapshotInterval;
+    private final Duration snapshotLag;
+
+    @Autowired
+    public LedgerService(AccountRepository accountRepository,
+                         TransactionRepository transactionRepository,
+                         BalanceSnapshotRepository snapshotRepository,
+                         @Value("${ledger.snapshot.interval:1000}") int snapshotInterval,
+                         @Value("${ledger.snapshot.lag:PT5M}") Duration snapshotLag) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotLag = snapshotLag;
+    }
+
+    /**
+     * Returns the balance of an account including every transaction dated at or before asOf.
+     * @param accountId The UUID of the account.
+     * @param asOf The point in time to evaluate the balance at.
+     * @return The balance in minor units.
+     */
+    @Transactional(readOnly = true)
+    public long getBalanceAsOf(UUID accountId, Instant asOf) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new RuntimeException("Account not found");
+        }
+        Optional<BalanceSnapshot> snapshot =
+                snapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, asOf);
+        long base = snapshot.map(BalanceSnapshot::getBalance).orElse(0L);
+        Instant from = snapshot.map(BalanceSnapshot::getAsOf).orElse(Instant.EPOCH);
+        long delta = Money.fromStoredDecimal(transactionRepository.sumNetAmount(accountId, from, asOf));
+        return Money.add(base, delta);
+    }
+
+    /**
+     * Extends an account's snapshots from its latest checkpoint. Only transactions older than
+     * ledger.snapshot.lag are folded in, so writes still in flight can't land behind a snapshot,
+     * and a snapshot is only cut between transactions with different dates.
+     * @param accountId The UUID of the account.
+     * @return The number of snapshots written.
+     */
+    @Transactional
+    public int rebuildSnapshots(UUID accountId) {
+        Account account = accountRepository.getReferenceById(accountId);
+        Optional<BalanceSnapshot> checkpoint = snapshotRepository.findFirstByAccountIdOrderByAsOfDesc(accountId);
+        long balance = checkpoint.map(BalanceSnapshot::getBalance).orElse(0L);
+        Instant from = checkpoint.map(BalanceSnapshot::getAsOf).orElse(Instant.EPOCH);
+        Instant until = Instant.now().minus(snapshotLag);
+        if (!from.isBefore(until)) {
+            return 0;
+        }
+
+        int created = 0;
+        int sinceLast = 0;
+        LedgerEntry last = null;
+        List<LedgerEntry> chunk = transactionRepository.findLedgerEntries(accountId, from, until, Limit.of(SCAN_CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            for (LedgerEntry entry : chunk) {
+                if (sinceLast >= snapshotInterval && entry.getDate().isAfter(last.getDate())) {
+                    snapshotRepository.save(new BalanceSnapshot(account, last.getDate(), balance, sinceLast));
+                    created++;
+                    sinceLast = 0;
+                }
+                balance = Money.add(balance, entry.getType().signed(entry.getAmount()));
+                sinceLast++;
+                last = entry;
+            }
+            if (chunk.size() < SCAN_CHUNK_SIZE) {
+                break;
+            }
+            chunk = transactionRepository.findLedgerEntriesAfter(accountId, last.getDate(), last.getId(), until, Limit.of(SCAN_CHUNK_SIZE));
+        }
+
+        // Every row dated last.getDate() has been read, so the tail can be checkpointed too.
+        if (sinceLast >= snapshotInterval) {
+            snapshotRepository.save(new BalanceSnapshot(account, last.getDate(), balance, sinceLast));
+            created++;
+        }
+        return created;
+    }
+}
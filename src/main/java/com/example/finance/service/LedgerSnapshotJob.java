@@ -0,0 +1,68 @@
+package com.example.finance.service;
+
+import com.example.finance.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Keeps balance snapshots up to date.
+ * In ledger mode it runs periodically; it can also be run once as a command:
+ *   java -jar app.jar --ledger.rebuild
+ * which extends every account's snapshots from its last checkpoint and then exits.
+ */
+@Component
+public class LedgerSnapshotJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotJob.class);
+
+    private final LedgerService ledgerService;
+    private final AccountRepository accountRepository;
+    private final ConfigurableApplicationContext context;
+    private final boolean ledgerEnabled;
+
+    @Autowired
+    public LedgerSnapshotJob(LedgerService ledgerService,
+                             AccountRepository accountRepository,
+                             ConfigurableApplicationContext context,
+                             @Value("${ledger.enabled:false}") boolean ledgerEnabled) {
+        this.ledgerService = ledgerService;
+        this.accountRepository = accountRepository;
+        this.context = context;
+        this.ledgerEnabled = ledgerEnabled;
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.period-ms:900000}", initialDelayString = "${ledger.snapshot.period-ms:900000}")
+    public void snapshotPeriodically() {
+        if (ledgerEnabled) {
+            rebuildAll();
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("ledger.rebuild")) {
+            int created = rebuildAll();
+            log.info("Ledger rebuild finished, {} snapshot(s) written", created);
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private int rebuildAll() {
+        int created = 0;
+        // One database transaction per account keeps each unit of work short.
+        for (UUID accountId : accountRepository.findAllIds()) {
+            created += ledgerService.rebuildSnapshots(accountId);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.finance.service;
+
+import com.example.finance.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Rebuilds the daily rollups of every account from its transactions, then exits:
+ *   java -jar app.jar --rollup.backfill
+ * Use it once after enabling rollups on a database that already has history.
+ */
+@Component
+public class RollupBackfillJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupBackfillJob.class);
+
+    private final RollupService rollupService;
+    private final AccountRepository accountRepository;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    public RollupBackfillJob(RollupService rollupService,
+                             AccountRepository accountRepository,
+                             ConfigurableApplicationContext context) {
+        this.rollupService = rollupService;
+        this.accountRepository = accountRepository;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rollup.backfill")) {
+            int rows = 0;
+            // One database transaction (and one account lock) per account.
+            for (UUID accountId : accountRepository.findAllIds()) {
+                rows += rollupService.backfill(accountId);
+            }
+            log.info("Rollup backfill finished, {} daily row(s) written", rows);
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
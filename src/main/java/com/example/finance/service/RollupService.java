@@ -0,0 +1,232 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.LedgerEntry;
+import com.example.finance.dto.RollupGranularity;
+import com.example.finance.dto.RollupPeriod;
+import com.example.finance.model.Account;
+import com.example.finance.model.DailyRollup;
+import com.example.finance.model.Money;
+import com.example.finance.model.TransactionType;
+import com.example.finance.repository.AccountRepository;
+import com.example.finance.repository.DailyRollupRepository;
+import com.example.finance.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Maintains and reads the per-day account rollups behind GET /api/accounts/{id}/summary.
+ * Days are UTC calendar days. Monthly periods are folded from the daily rows at read time.
+ */
+@Service
+public class RollupService {
+
+    private static final int SCAN_CHUNK_SIZE = 1000;
+
+    private final DailyRollupRepository rollupRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Autowired
+    public RollupService(DailyRollupRepository rollupRepository,
+                         AccountRepository accountRepository,
+                         TransactionRepository transactionRepository) {
+        this.rollupRepository = rollupRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    public static LocalDate dayOf(Instant date) {
+        return LocalDate.ofInstant(date, ZoneOffset.UTC);
+    }
+
+    public void recordMovement(UUID accountId, Instant date, TransactionType type, long amount) {
+        if (type.isCredit()) {
+            record(accountId, dayOf(date), amount, 1, 0, 0);
+        } else {
+            record(accountId, dayOf(date), 0, 0, amount, 1);
+        }
+    }
+
+    /**
+     * Adds movements to an account's rollup for one day. Must run in the same database transaction
+     * as the balance update it describes, after it: that update's row lock on the account serializes
+     * writers, so the update-then-insert below can't race with another first write of the day.
+     */
+    @Transactional
+    public void record(UUID accountId, LocalDate date, long deposits, int depositCount, long withdrawals, int withdrawCount) {
+        if (rollupRepository.accumulate(accountId, date, deposits, depositCount, withdrawals, withdrawCount) > 0) {
+            return;
+        }
+        DailyRollup rollup = new DailyRollup(accountRepository.getReferenceById(accountId), date);
+        rollup.setDepositTotal(deposits);
+        rollup.setDepositCount(depositCount);
+        rollup.setWithdrawTotal(withdrawals);
+        rollup.setWithdrawCount(withdrawCount);
+        rollup.setClosingBalance(accountRepository.findBalanceById(accountId));
+        rollupRepository.save(rollup);
+    }
+
+    /**
+     * As {@link #record(UUID, LocalDate, long, int, long, int)}, for writers that changed the balance through
+     * the locked Account entity (batches and group commit) and so already know the balance the day closes on.
+     */
+    @Transactional
+    public void record(UUID accountId, LocalDate date, long deposits, int depositCount, long withdrawals, int withdrawCount,
+                       long closingBalance) {
+        if (rollupRepository.accumulate(accountId, date, deposits, depositCount, withdrawals, withdrawCount, closingBalance) > 0) {
+            return;
+        }
+        DailyRollup rollup = new DailyRollup(accountRepository.getReferenceById(accountId), date);
+        rollup.setDepositTotal(deposits);
+        rollup.setDepositCount(depositCount);
+        rollup.setWithdrawTotal(withdrawals);
+        rollup.setWithdrawCount(withdrawCount);
+        rollup.setClosingBalance(closingBalance);
+        rollupRepository.save(rollup);
+    }
+
+    /**
+     * Folds movements imported into the past into an account's rollups without rescanning its history.
+     * The imported days get the movements added (their rows are created if missing), and every day from the
+     * first imported one on has its closing balance moved by the net imported up to it. Only the rollup rows
+     * between the first and last imported day are read, plus the one before them. Like record, must run after
+     * the import's balance update, in the same database transaction.
+     * @param days Per imported day: deposit total, deposit count, withdraw total, withdraw count.
+     */
+    @Transactional
+    public void recordImport(UUID accountId, SortedMap<LocalDate, long[]> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+        LocalDate first = days.firstKey();
+        LocalDate last = days.lastKey();
+        Map<LocalDate, DailyRollup> existing = new HashMap<>();
+        for (DailyRollup rollup : rollupRepository.findByAccountIdAndDateBetweenOrderByDateAsc(accountId, first, last)) {
+            existing.put(rollup.getDate(), rollup);
+        }
+        // The closing balance the rollups had before the day being visited, without the imported movements.
+        long closingBefore = rollupRepository.findFirstByAccountIdAndDateLessThanOrderByDateDesc(accountId, first)
+                .map(DailyRollup::getClosingBalance)
+                .orElse(0L);
+
+        TreeSet<LocalDate> dates = new TreeSet<>(existing.keySet());
+        dates.addAll(days.keySet());
+        long net = 0;
+        List<DailyRollup> created = new ArrayList<>();
+        for (LocalDate date : dates) {
+            long[] t = days.get(date);
+            DailyRollup rollup = existing.get(date);
+            if (rollup == null) {
+                rollup = new DailyRollup(accountRepository.getReferenceById(accountId), date);
+                created.add(rollup);
+            } else {
+                closingBefore = rollup.getClosingBalance();
+            }
+            if (t != null) {
+                rollup.setDepositTotal(Money.add(rollup.getDepositTotal(), t[0]));
+                rollup.setDepositCount(rollup.getDepositCount() + (int) t[1]);
+                rollup.setWithdrawTotal(Money.add(rollup.getWithdrawTotal(), t[2]));
+                rollup.setWithdrawCount(rollup.getWithdrawCount() + (int) t[3]);
+                net = Money.add(net, Money.subtract(t[0], t[2]));
+            }
+            rollup.setClosingBalance(Money.add(closingBefore, net));
+        }
+        rollupRepository.saveAll(created);
+        if (net != 0) {
+            rollupRepository.shiftClosingBalancesAfter(accountId, last, net);
+        }
+    }
+
+    /**
+     * Returns the periods between from and to (inclusive) that had activity, oldest first.
+     * Reads only rollup rows, never Transaction.
+     */
+    @Transactional(readOnly = true)
+    public List<RollupPeriod> getSummary(UUID accountId, LocalDate from, LocalDate to, RollupGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw new RuntimeException("Account not found");
+        }
+
+        List<RollupPeriod> periods = new ArrayList<>();
+        RollupPeriod current = null;
+        for (DailyRollup day : rollupRepository.findByAccountIdAndDateBetweenOrderByDateAsc(accountId, from, to)) {
+            LocalDate start = granularity == RollupGranularity.MONTH ? day.getDate().withDayOfMonth(1) : day.getDate();
+            if (current == null || !current.getPeriodStart().equals(start)) {
+                current = new RollupPeriod(start);
+                periods.add(current);
+            }
+            current.setDepositTotal(Money.add(current.getDepositTotal(), day.getDepositTotal()));
+            current.setDepositCount(current.getDepositCount() + day.getDepositCount());
+            current.setWithdrawTotal(Money.add(current.getWithdrawTotal(), day.getWithdrawTotal()));
+            current.setWithdrawCount(current.getWithdrawCount() + day.getWithdrawCount());
+            current.setClosingBalance(day.getClosingBalance());
+        }
+        return periods;
+    }
+
+    /**
+     * Recomputes an account's rollups from its transactions. The account row is locked for the
+     * duration, so no deposit or withdrawal can interleave, and closing balances are anchored on
+     * the current balance. History is read in chunks; memory grows with days, not transactions.
+     * @return The number of daily rows written.
+     */
+    @Transactional
+    public int backfill(UUID accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        rollupRepository.deleteByAccountId(accountId);
+
+        TreeMap<LocalDate, DailyRollup> days = new TreeMap<>();
+        TreeMap<LocalDate, Long> dayNet = new TreeMap<>();
+        long net = 0;
+        Instant until = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<LedgerEntry> chunk = transactionRepository.findLedgerEntries(accountId, Instant.EPOCH, until, Limit.of(SCAN_CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            for (LedgerEntry entry : chunk) {
+                LocalDate date = dayOf(entry.getDate());
+                DailyRollup rollup = days.computeIfAbsent(date, d -> new DailyRollup(account, d));
+                if (entry.getType().isCredit()) {
+                    rollup.setDepositTotal(Money.add(rollup.getDepositTotal(), entry.getAmount()));
+                    rollup.setDepositCount(rollup.getDepositCount() + 1);
+                } else {
+                    rollup.setWithdrawTotal(Money.add(rollup.getWithdrawTotal(), entry.getAmount()));
+                    rollup.setWithdrawCount(rollup.getWithdrawCount() + 1);
+                }
+                long signed = entry.getType().signed(entry.getAmount());
+                dayNet.merge(date, signed, Money::add);
+                net = Money.add(net, signed);
+            }
+            if (chunk.size() < SCAN_CHUNK_SIZE) {
+                break;
+            }
+            LedgerEntry last = chunk.get(chunk.size() - 1);
+            chunk = transactionRepository.findLedgerEntriesAfter(accountId, last.getDate(), last.getId(), until, Limit.of(SCAN_CHUNK_SIZE));
+        }
+
+        long closing = Money.subtract(account.getBalance(), net);
+        for (DailyRollup rollup : days.values()) {
+            closing = Money.add(closing, dayNet.get(rollup.getDate()));
+            rollup.setClosingBalance(closing);
+        }
+        rollupRepository.saveAll(days.values());
+        return days.size();
+    }
+}
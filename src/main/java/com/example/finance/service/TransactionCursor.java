@@ -0,0 +1,46 @@
+package com.example.finance.service;
+
+import com.example.finance.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for transaction history pages.
+ * Encodes the (date, id) of the last row returned so the next page can seek
+ * straight to it through the (account_id, date desc, id) index instead of using an OFFSET.
+ */
+final class TransactionCursor {
+
+    private final Instant date;
+    private final UUID id;
+
+    private TransactionCursor(Instant date, UUID id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    Instant getDate() { return date; }
+    UUID getId() { return id; }
+
+    static String encode(Transaction last) {
+        String raw = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed history cursor.");
+            }
+            return new TransactionCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed history cursor.", e);
+        }
+    }
+}
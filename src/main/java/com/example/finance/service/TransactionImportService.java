@@ -0,0 +1,410 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.ImportResult;
+import com.example.finance.dto.ImportRowError;
+import com.example.finance.model.Account;
+import com.example.finance.model.Money;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import com.example.finance.repository.AccountRepository;
+import com.example.finance.repository.BalanceSnapshotRepository;
+import com.example.finance.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Imports bank statements from CSV.
+ * The file is read line by line and rows are inserted in JDBC batches of transactions.import.batch-size,
+ * clearing the persistence context after each, so memory stays flat for large files. Balances are
+ * changed once per account, by the net of the imported rows, at the end of the single database transaction.
+ * A file with an accountId column is read twice: first for its accounts alone, so that the caller's ownership
+ * of every one of them is checked before any row is inserted.
+ * In ledger mode (ledger.enabled) those accounts are locked up front and each imported row records the
+ * running balance after it, in file order, like any other posting; the rows already imported are skipped.
+ *
+ * Expected header (any column order, case-insensitive): date,type,amount[,reference][,accountId].
+ * date is an ISO instant, date-time (UTC) or date; type is DEPOSIT or WITHDRAW; amount is a positive decimal.
+ *
+ * Each row gets a content-derived importRef, so importing the same file again skips rows already imported.
+ * Identical lines are told apart by how many times they occurred earlier within the same date. Rows must be in
+ * date order (oldest or newest first, as banks export them) so those counts only need to be kept for the
+ * current date; a row that breaks the order is reported as an error.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final RollupService rollupService;
+    private final AccountCache accountCache;
+    private final AccountEvents accountEvents;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final boolean rollupsEnabled;
+    private final boolean ledgerEnabled;
+
+    @Autowired
+    public TransactionImportService(TransactionRepository transactionRepository,
+                                    AccountRepository accountRepository,
+                                    BalanceSnapshotRepository snapshotRepository,
+                                    RollupService rollupService,
+                                    AccountCache accountCache,
+                                    AccountEvents accountEvents,
+                                    EntityManager entityManager,
+                                    @Value("${transactions.import.batch-size:500}") int batchSize,
+                                    @Value("${rollup.enabled:true}") boolean rollupsEnabled,
+                                    @Value("${ledger.enabled:false}") boolean ledgerEnabled) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.rollupService = rollupService;
+        this.accountCache = accountCache;
+        this.accountEvents = accountEvents;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.rollupsEnabled = rollupsEnabled;
+        this.ledgerEnabled = ledgerEnabled;
+    }
+
+    /**
+     * Imports a CSV statement. Invalid rows are reported and skipped; the rest are imported.
+     * The import fails as a whole if the net result would overdraw an account, and is refused with 403 before
+     * anything is inserted if the file names an account the caller doesn't own.
+     * @param username The authenticated user, who must own every account the file names.
+     * @param source The CSV content; opened twice if the file has an accountId column.
+     * @param defaultAccountId Account for rows without an accountId column; may be null if the file has one.
+     */
+    @Transactional
+    public ImportResult importCsv(String username, InputStreamSource source, UUID defaultAccountId) throws IOException {
+        long started = System.nanoTime();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        try (BufferedReader reader = open(source)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty.");
+            }
+            Columns columns = Columns.parse(header);
+            if (columns.accountId < 0 && defaultAccountId == null) {
+                throw new IllegalArgumentException("The file has no accountId column, so an accountId parameter is required.");
+            }
+            Set<UUID> accountIds = requireOwnedAccounts(username, source, columns, defaultAccountId);
+            ImportRun run = new ImportRun();
+            if (ledgerEnabled) {
+                // Held until commit, so no other posting lands between the rows' running balances.
+                for (Account account : accountRepository.findAllByIdForUpdate(accountIds)) {
+                    run.runningBalances.put(account.getId(), account.getBalance());
+                }
+            }
+            return importRows(reader, columns, defaultAccountId, run, started);
+        }
+    }
+
+    private ImportResult importRows(BufferedReader reader, Columns columns, UUID defaultAccountId, ImportRun run,
+                                    long started) throws IOException {
+        Map<String, Integer> occurrences = new HashMap<>();
+        Instant currentDate = null;
+        int direction = 0;
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                Row row = Row.parse(splitCsvLine(line), columns, defaultAccountId);
+                if (!run.knownAccounts.computeIfAbsent(row.accountId, accountRepository::existsById)) {
+                    throw new IllegalArgumentException("Account not found: " + row.accountId);
+                }
+                if (currentDate != null && !row.date.equals(currentDate)) {
+                    int step = row.date.compareTo(currentDate) > 0 ? 1 : -1;
+                    if (direction != 0 && step != direction) {
+                        throw new IllegalArgumentException("Row is out of date order; statements must be sorted by date.");
+                    }
+                    direction = step;
+                    occurrences.clear();
+                }
+                currentDate = row.date;
+                String content = row.accountId + "|" + row.date + "|" + row.type + "|" + row.amount + "|" + row.reference;
+                int occurrence = occurrences.merge(content, 1, Integer::sum);
+
+                Transaction txn = new Transaction(accountRepository.getReferenceById(row.accountId), row.amount, row.type);
+                txn.setDate(row.date);
+                txn.setImportRef(UUID.nameUUIDFromBytes((content + "|" + occurrence).getBytes(StandardCharsets.UTF_8)));
+                run.pending.add(txn);
+            } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                run.failed++;
+                if (run.errors.size() < MAX_REPORTED_ERRORS) {
+                    run.errors.add(new ImportRowError(lineNumber, e.getMessage()));
+                } else {
+                    run.errorsTruncated = true;
+                }
+            }
+            if (run.pending.size() >= batchSize) {
+                flushBatch(run);
+            }
+        }
+        flushBatch(run);
+
+        for (Map.Entry<UUID, Long> net : run.netByAccount.entrySet()) {
+            UUID accountId = net.getKey();
+            long delta = net.getValue();
+            if (delta > 0) {
+                accountRepository.credit(accountId, delta);
+            } else if (delta < 0 && accountRepository.debit(accountId, -delta) == 0) {
+                throw new RuntimeException("Import would overdraw account " + accountId + "; nothing was imported.");
+            }
+            accountCache.evictAccount(accountId);
+            accountEvents.resync(accountId);
+            // Imported rows may predate existing checkpoints and daily rollups.
+            snapshotRepository.deleteFrom(accountId, run.earliestByAccount.get(accountId));
+            if (rollupsEnabled) {
+                rollupService.recordImport(accountId, run.daysByAccount.get(accountId));
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        ImportResult result = new ImportResult();
+        result.setRowsRead(run.rowsRead);
+        result.setImported(run.imported);
+        result.setSkipped(run.skipped);
+        result.setFailed(run.failed);
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : run.rowsRead * 1e9 / elapsedNanos);
+        result.setErrors(run.errors);
+        result.setErrorsTruncated(run.errorsTruncated);
+        return result;
+    }
+
+    // Refuses the import unless the caller owns every account named in the file or by the accountId parameter,
+    // and returns those accounts. Accounts that don't exist are refused too, as for transfers. Unparseable ids
+    // are left for the import pass to report as row errors.
+    private Set<UUID> requireOwnedAccounts(String username, InputStreamSource source, Columns columns,
+                                      UUID defaultAccountId) throws IOException {
+        Set<UUID> accountIds = new HashSet<>();
+        if (defaultAccountId != null) {
+            accountIds.add(defaultAccountId);
+        }
+        if (columns.accountId >= 0) {
+            try (BufferedReader reader = open(source)) {
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String accountId = Row.field(splitCsvLine(line), columns.accountId);
+                    if (!accountId.isEmpty()) {
+                        try {
+                            accountIds.add(UUID.fromString(accountId));
+                        } catch (IllegalArgumentException e) {
+                            // Reported against its line by the import pass.
+                        }
+                    }
+                }
+            }
+        }
+        for (UUID accountId : accountIds) {
+            if (username == null || !username.equals(accountCache.ownerOf(accountId))) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only import into your own accounts.");
+            }
+        }
+        return accountIds;
+    }
+
+    private static BufferedReader open(InputStreamSource source) throws IOException {
+        return new BufferedReader(new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    // Inserts the pending rows that weren't imported before, as one JDBC batch, then detaches them.
+    private void flushBatch(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<UUID> refs = new ArrayList<>(run.pending.size());
+        for (Transaction txn : run.pending) {
+            refs.add(txn.getImportRef());
+        }
+        Set<UUID> existing = transactionRepository.findExistingImportRefs(refs);
+
+        for (Transaction txn : run.pending) {
+            if (existing.contains(txn.getImportRef())) {
+                run.skipped++;
+                continue;
+            }
+            UUID accountId = txn.getAccount().getId();
+            long signed = txn.getType().signed(txn.getAmount());
+            if (ledgerEnabled) {
+                txn.setBalanceAfter(run.runningBalances.merge(accountId, signed, Money::add));
+            }
+            entityManager.persist(txn);
+            run.imported++;
+            run.netByAccount.merge(accountId, signed, Money::add);
+            run.earliestByAccount.merge(accountId, txn.getDate(), (a, b) -> a.isBefore(b) ? a : b);
+            // Deposit total, deposit count, withdraw total, withdraw count per imported day, for the rollups.
+            long[] day = run.daysByAccount.computeIfAbsent(accountId, id -> new TreeMap<>())
+                    .computeIfAbsent(RollupService.dayOf(txn.getDate()), date -> new long[4]);
+            int offset = txn.getType().isCredit() ? 0 : 2;
+            day[offset] = Money.add(day[offset], txn.getAmount());
+            day[offset + 1]++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        run.pending.clear();
+    }
+
+    // Splits one CSV line; supports double-quoted fields with "" escapes (but not line breaks inside quotes).
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static final class ImportRun {
+        final List<Transaction> pending = new ArrayList<>();
+        final Map<UUID, Boolean> knownAccounts = new HashMap<>();
+        final Map<UUID, Long> netByAccount = new LinkedHashMap<>();
+        final Map<UUID, Long> runningBalances = new HashMap<>();
+        final Map<UUID, Instant> earliestByAccount = new HashMap<>();
+        final Map<UUID, TreeMap<LocalDate, long[]>> daysByAccount = new HashMap<>();
+        final List<ImportRowError> errors = new ArrayList<>();
+        boolean errorsTruncated;
+        long rowsRead;
+        long imported;
+        long skipped;
+        long failed;
+    }
+
+    private static final class Columns {
+        int date = -1;
+        int type = -1;
+        int amount = -1;
+        int reference = -1;
+        int accountId = -1;
+
+        static Columns parse(String header) {
+            Columns columns = new Columns();
+            // Strip a UTF-8 byte order mark left by spreadsheet exports.
+            List<String> names = splitCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) {
+                switch (names.get(i).toLowerCase(Locale.ROOT)) {
+                    case "date" -> columns.date = i;
+                    case "type" -> columns.type = i;
+                    case "amount" -> columns.amount = i;
+                    case "reference" -> columns.reference = i;
+                    case "accountid" -> columns.accountId = i;
+                    default -> { }
+                }
+            }
+            if (columns.date < 0 || columns.type < 0 || columns.amount < 0) {
+                throw new IllegalArgumentException("The header must name date, type and amount columns.");
+            }
+            return columns;
+        }
+    }
+
+    private static final class Row {
+        UUID accountId;
+        Instant date;
+        TransactionType type;
+        long amount;
+        String reference;
+
+        static Row parse(List<String> fields, Columns columns, UUID defaultAccountId) {
+            Row row = new Row();
+            String accountId = field(fields, columns.accountId);
+            row.accountId = accountId.isEmpty() ? defaultAccountId : UUID.fromString(accountId);
+            if (row.accountId == null) {
+                throw new IllegalArgumentException("Missing accountId.");
+            }
+            row.date = parseDate(field(fields, columns.date));
+            String type = field(fields, columns.type).toUpperCase(Locale.ROOT);
+            if (type.equals("DEPOSIT")) {
+                row.type = TransactionType.DEPOSIT;
+            } else if (type.equals("WITHDRAW")) {
+                row.type = TransactionType.WITHDRAW;
+            } else {
+                throw new IllegalArgumentException("Unknown type '" + field(fields, columns.type) + "'.");
+            }
+            row.amount = Money.fromDecimal(new BigDecimal(field(fields, columns.amount)));
+            if (row.amount <= 0) {
+                throw new IllegalArgumentException("Amount must be greater than zero.");
+            }
+            row.reference = field(fields, columns.reference);
+            return row;
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : "";
+        }
+
+        private static Instant parseDate(String value) {
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Missing date.");
+            }
+            Instant date;
+            if (value.endsWith("Z") || value.matches(".*[+-]\\d{2}:\\d{2}$")) {
+                date = OffsetDateTime.parse(value).toInstant();
+            } else if (value.contains("T")) {
+                date = LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+            } else {
+                date = LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return date.truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.finance.service;
+
+import com.example.finance.config.AfterCommit;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts posted transactions by type: "transactions.posted" (rows) and "transactions.posted.amount"
+ * (minor units). Counts are added when the writing database transaction commits, so rolled-back
+ * writes never show up.
+ */
+@Component
+public class TransactionMetrics {
+
+    private final Map<TransactionType, Counter> posted = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Counter> amounts = new EnumMap<>(TransactionType.class);
+
+    @Autowired
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        for (TransactionType type : TransactionType.values()) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            posted.put(type, Counter.builder("transactions.posted")
+                    .description("Transactions committed")
+                    .tag("type", tag)
+                    .register(meterRegistry));
+            amounts.put(type, Counter.builder("transactions.posted.amount")
+                    .description("Sum of committed transaction amounts, in minor units")
+                    .baseUnit("minor_units")
+                    .tag("type", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void posted(TransactionType type, long amount) {
+        AfterCommit.run(() -> increment(type, amount));
+    }
+
+    public void posted(List<Transaction> txns) {
+        if (txns.isEmpty()) {
+            return;
+        }
+        long[] counts = new long[TransactionType.values().length];
+        long[] sums = new long[counts.length];
+        for (Transaction txn : txns) {
+            counts[txn.getType().ordinal()]++;
+            sums[txn.getType().ordinal()] += txn.getAmount();
+        }
+        AfterCommit.run(() -> {
+            for (TransactionType type : TransactionType.values()) {
+                if (counts[type.ordinal()] > 0) {
+                    posted.get(type).increment(counts[type.ordinal()]);
+                    amounts.get(type).increment(sums[type.ordinal()]);
+                }
+            }
+        });
+    }
+
+    private void increment(TransactionType type, long amount) {
+        posted.get(type).increment();
+        amounts.get(type).increment(amount);
+    }
+}
@@ -1,14 +1,35 @@
 package com.example.finance.service;
 
+import com.example.finance.dto.TransactionBatchItem;
+import com.example.finance.dto.TransactionBatchResult;
+import com.example.finance.dto.TransactionEvent;
+import com.example.finance.dto.TransactionPage;
+import com.example.finance.dto.TransferResult;
 import com.example.finance.model.Account;
+import com.example.finance.model.Money;
+import com.example.finance.model.TimeOrderedUuidGenerator;
 import com.example.finance.model.Transaction;
+import com.example.finance.model.TransactionType;
 import com.example.finance.repository.AccountRepository;
 import com.example.finance.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant; // 1. IMPORTANT: Import Instant
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -16,41 +37,404 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final RollupService rollupService;
+    private final AccountCache accountCache;
+    private final TransactionMetrics metrics;
+    private final AccountEvents events;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+    private final boolean ledgerEnabled;
+    private final boolean rollupsEnabled;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository) {
+    public TransactionService(TransactionRepository transactionRepository,
+                              AccountRepository accountRepository,
+                              RollupService rollupService,
+                              AccountCache accountCache,
+                              TransactionMetrics metrics,
+                              AccountEvents events,
+                              @Value("${transactions.history.default-page-size:50}") int defaultPageSize,
+                              @Value("${transactions.history.max-page-size:200}") int maxPageSize,
+                              @Value("${transactions.batch.max-size:5000}") int maxBatchSize,
+                              @Value("${ledger.enabled:false}") boolean ledgerEnabled,
+                              @Value("${rollup.enabled:true}") boolean rollupsEnabled) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.rollupService = rollupService;
+        this.accountCache = accountCache;
+        this.metrics = metrics;
+        this.events = events;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.ledgerEnabled = ledgerEnabled;
+        this.rollupsEnabled = rollupsEnabled;
     }
 
-    public Transaction deposit(UUID accountId, double amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        account.setBalance(account.getBalance() + amount);
-        accountRepository.save(account);
+    /**
+     * Credits an account with a single conditional UPDATE, then records the Transaction.
+     * The balance is never read into Java, so concurrent deposits on a hot account can't lose updates.
+     */
+    @Transactional
+    public Transaction deposit(UUID accountId, long amount) {
+        return deposit(accountId, amount, null);
+    }
 
-        Transaction txn = new Transaction(account, amount, "DEPOSIT");
-        txn.setDate(Instant.now()); // 2. FIX: Set the current date/time
-        return transactionRepository.save(txn);
+    /**
+     * As {@link #deposit(UUID, long)}, tagging the row with the request's Idempotency-Key.
+     * A key already used on this account fails the insert and rolls the credit back; see IdempotencyService.
+     */
+    @Transactional
+    public Transaction deposit(UUID accountId, long amount, String idempotencyKey) {
+        requirePositive(amount);
+        if (accountRepository.credit(accountId, amount) == 0) {
+            throw new RuntimeException("Account not found");
+        }
+        return record(accountId, amount, TransactionType.DEPOSIT, idempotencyKey);
     }
 
-    public Transaction withdraw(UUID accountId, double amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        if (account.getBalance() < amount) {
-            throw new RuntimeException("Insufficient funds");
+    /**
+     * Debits an account with a single UPDATE ... WHERE balance >= amount.
+     * The funds check and the debit happen atomically in the database, so the balance can't go negative under concurrency.
+     */
+    @Transactional
+    public Transaction withdraw(UUID accountId, long amount) {
+        return withdraw(accountId, amount, null);
+    }
+
+    /**
+     * As {@link #withdraw(UUID, long)}, tagging the row with the request's Idempotency-Key.
+     */
+    @Transactional
+    public Transaction withdraw(UUID accountId, long amount, String idempotencyKey) {
+        requirePositive(amount);
+        if (accountRepository.debit(accountId, amount) == 0) {
+            // Only the failure path pays for the extra lookup that tells the two cases apart.
+            throw new RuntimeException(accountRepository.existsById(accountId) ? "Insufficient funds" : "Account not found");
+        }
+        return record(accountId, amount, TransactionType.WITHDRAW, idempotencyKey);
+    }
+
+    /**
+     * Moves funds between two accounts in one database transaction and records a linked pair of rows:
+     * TRANSFER_OUT on the source and TRANSFER_IN on the destination, sharing a transferId.
+     * Both balance changes are conditional UPDATEs issued in ascending account-id order, so transfers
+     * running in opposite directions between the same accounts queue on the row locks instead of deadlocking.
+     * @param username The authenticated user, who must own the source account; answered with 403 otherwise.
+     */
+    @Transactional
+    public TransferResult transfer(String username, UUID fromAccountId, UUID toAccountId, long amount) {
+        requirePositive(amount);
+        if (fromAccountId == null || toAccountId == null) {
+            throw new IllegalArgumentException("Transfer needs a source and a destination account.");
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account.");
+        }
+        // An unknown source account is refused the same way, so this doesn't reveal which ids exist.
+        if (username == null || !username.equals(accountCache.ownerOf(fromAccountId))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only transfer from your own accounts.");
+        }
+
+        if (lockOrder(fromAccountId, toAccountId) < 0) {
+            debitForTransfer(fromAccountId, amount);
+            creditForTransfer(toAccountId, amount);
+        } else {
+            creditForTransfer(toAccountId, amount);
+            debitForTransfer(fromAccountId, amount);
+        }
+
+        UUID transferId = TimeOrderedUuidGenerator.next();
+        Instant date = now();
+        Transaction out = record(fromAccountId, amount, TransactionType.TRANSFER_OUT, null, transferId, date);
+        Transaction in = record(toAccountId, amount, TransactionType.TRANSFER_IN, null, transferId, date);
+        return new TransferResult(transferId, out, in);
+    }
+
+    private void debitForTransfer(UUID accountId, long amount) {
+        if (accountRepository.debit(accountId, amount) == 0) {
+            throw new RuntimeException(accountRepository.existsById(accountId) ? "Insufficient funds" : "Account not found");
+        }
+    }
+
+    private void creditForTransfer(UUID accountId, long amount) {
+        if (accountRepository.credit(accountId, amount) == 0) {
+            throw new RuntimeException("Account not found");
+        }
+    }
+
+    private Transaction record(UUID accountId, long amount, TransactionType type, String idempotencyKey) {
+        return record(accountId, amount, type, idempotencyKey, null, now());
+    }
+
+    // Writes the Transaction row for a balance change that has already been applied in this transaction.
+    private Transaction record(UUID accountId, long amount, TransactionType type, String idempotencyKey,
+                               UUID transferId, Instant date) {
+        Transaction txn = new Transaction(accountRepository.getReferenceById(accountId), amount, type);
+        txn.setDate(date);
+        txn.setTransferId(transferId);
+        accountCache.evictAccount(accountId);
+        metrics.posted(type, amount);
+        TransactionEvent posted = null;
+        if (ledgerEnabled) {
+            // Our UPDATE still holds the row lock, so this reads exactly the balance and version it produced.
+            posted = accountRepository.findEventById(accountId);
+            txn.setBalanceAfter(posted.getBalance());
+        }
+        if (rollupsEnabled) {
+            rollupService.recordMovement(accountId, txn.getDate(), type, amount);
+        }
+        Transaction saved;
+        if (idempotencyKey != null) {
+            txn.setIdempotencyKey(idempotencyKey);
+            // Insert now rather than at commit, so a duplicate key surfaces from this call.
+            saved = transactionRepository.saveAndFlush(txn);
+        } else {
+            saved = transactionRepository.save(txn);
+        }
+        // Ledger mode already read the balance; otherwise it's only read if the owner has a stream open.
+        TransactionEvent state = posted;
+        events.transactionPosted(saved, () -> {
+            TransactionEvent event = state != null ? state : accountRepository.findEventById(accountId);
+            event.setTransaction(saved);
+            return event;
+        });
+        return saved;
+    }
+
+    /**
+     * Applies a list of deposits and withdrawals in one database transaction, in list order.
+     * Touched accounts are locked with a single query, in id order like applyGroup, so concurrent deposits,
+     * withdrawals and transfers on them wait for the batch instead of failing its optimistic check. Each gets
+     * one balance UPDATE at flush; the Transaction rows are written as JDBC batch inserts (see hibernate.jdbc.batch_size).
+     * If any movement fails (unknown account, insufficient funds) the whole batch is rolled back.
+     * @param username The authenticated user, who must own every account in the batch; answered with 403 otherwise.
+     * @param items The movements to apply.
+     * @return The number of movements applied and the final balance of every touched account.
+     */
+    @Transactional
+    public TransactionBatchResult applyBatch(String username, List<TransactionBatchItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction.");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxBatchSize + " transactions.");
+        }
+
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        for (TransactionBatchItem item : items) {
+            if (item.getAccountId() == null || item.getType() == null || item.getAmount() <= 0) {
+                throw new IllegalArgumentException("Each batch item needs an accountId, a type and a positive amount.");
+            }
+            if (item.getType() != TransactionType.DEPOSIT && item.getType() != TransactionType.WITHDRAW) {
+                throw new IllegalArgumentException("Batch items must be DEPOSIT or WITHDRAW; use /transfer for transfers.");
+            }
+            accountIds.add(item.getAccountId());
+        }
+        // Checked before anything is locked; unknown accounts are refused the same way, as for transfers.
+        for (UUID accountId : accountIds) {
+            if (username == null || !username.equals(accountCache.ownerOf(accountId))) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only move money in your own accounts.");
+            }
+        }
+
+        Map<UUID, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(accountIds)) {
+            accounts.put(account.getId(), account);
+        }
+        if (accounts.size() != accountIds.size()) {
+            throw new RuntimeException("Account not found");
+        }
+
+        Instant now = now();
+        List<Transaction> txns = new ArrayList<>(items.size());
+        for (TransactionBatchItem item : items) {
+            Account account = accounts.get(item.getAccountId());
+            if (item.getType() == TransactionType.WITHDRAW) {
+                if (account.getBalance() < item.getAmount()) {
+                    throw new RuntimeException("Insufficient funds");
+                }
+                account.setBalance(Money.subtract(account.getBalance(), item.getAmount()));
+            } else {
+                account.setBalance(Money.add(account.getBalance(), item.getAmount()));
+            }
+            Transaction txn = new Transaction(account, item.getAmount(), item.getType());
+            txn.setDate(now);
+            if (ledgerEnabled) {
+                txn.setBalanceAfter(account.getBalance());
+            }
+            txns.add(txn);
+        }
+        // Balances are flushed by dirty checking: one UPDATE per account, however many items touched it.
+        transactionRepository.saveAll(txns);
+        if (rollupsEnabled) {
+            recordBatchRollups(txns, now);
         }
-        account.setBalance(account.getBalance() - amount);
-        accountRepository.save(account);
+        accountIds.forEach(accountCache::evictAccount);
+        metrics.posted(txns);
+        publishPosted(txns);
 
-        Transaction txn = new Transaction(account, amount, "WITHDRAW");
-        txn.setDate(Instant.now()); // 3. FIX: Set the current date/time
-        return transactionRepository.save(txn);
+        Map<UUID, Long> balances = new LinkedHashMap<>();
+        for (UUID id : accountIds) {
+            balances.put(id, accounts.get(id).getBalance());
+        }
+        return new TransactionBatchResult(items.size(), balances);
     }
 
+    /**
+     * Applies a group of queued deposits and withdrawals (see GroupCommitService) in one database transaction.
+     * Unlike applyBatch, requests succeed or fail individually: each gets its Transaction or its error recorded
+     * on it, exactly as the direct deposit/withdraw would have produced. Touched accounts are locked up front,
+     * each gets a single balance UPDATE carrying the net of its requests, and all rows are batch-inserted.
+     * A request whose Idempotency-Key was already used on its account gets the earlier Transaction back.
+     */
+    @Transactional
+    public void applyGroup(List<GroupCommitRequest> requests) {
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        Set<String> keys = new LinkedHashSet<>();
+        for (GroupCommitRequest request : requests) {
+            if (request.getAccountId() != null) {
+                accountIds.add(request.getAccountId());
+            }
+            if (request.getIdempotencyKey() != null) {
+                keys.add(request.getIdempotencyKey());
+            }
+        }
+        Map<UUID, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(accountIds)) {
+            accounts.put(account.getId(), account);
+        }
+        Map<String, Transaction> keyed = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (Transaction txn : transactionRepository.findByIdempotencyKeyIn(keys)) {
+                keyed.put(txn.getAccount().getId() + ":" + txn.getIdempotencyKey(), txn);
+            }
+        }
+
+        Instant now = now();
+        List<Transaction> txns = new ArrayList<>(requests.size());
+        for (GroupCommitRequest request : requests) {
+            Account account = accounts.get(request.getAccountId());
+            String key = request.getIdempotencyKey() == null ? null : request.getAccountId() + ":" + request.getIdempotencyKey();
+            if (request.getAmount() <= 0) {
+                request.fail(new IllegalArgumentException("Amount must be greater than zero."));
+            } else if (account == null) {
+                request.fail(new RuntimeException("Account not found"));
+            } else if (key != null && keyed.containsKey(key)) {
+                request.succeed(keyed.get(key));
+            } else if (request.getType() == TransactionType.WITHDRAW && account.getBalance() < request.getAmount()) {
+                request.fail(new RuntimeException("Insufficient funds"));
+            } else {
+                account.setBalance(request.getType() == TransactionType.WITHDRAW
+                        ? Money.subtract(account.getBalance(), request.getAmount())
+                        : Money.add(account.getBalance(), request.getAmount()));
+                Transaction txn = new Transaction(account, request.getAmount(), request.getType());
+                txn.setDate(now);
+                txn.setIdempotencyKey(request.getIdempotencyKey());
+                if (ledgerEnabled) {
+                    txn.setBalanceAfter(account.getBalance());
+                }
+                txns.add(txn);
+                if (key != null) {
+                    keyed.put(key, txn);
+                }
+                request.succeed(txn);
+            }
+        }
+        transactionRepository.saveAll(txns);
+        if (rollupsEnabled && !txns.isEmpty()) {
+            recordBatchRollups(txns, now);
+        }
+        for (Transaction txn : txns) {
+            accountCache.evictAccount(txn.getAccount().getId());
+        }
+        metrics.posted(txns);
+        publishPosted(txns);
+    }
+
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactions(UUID accountId) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         return transactionRepository.findByAccount(account);
     }
+
+    /**
+     * Returns one page of an account's history, newest first.
+     * Pages are addressed by an opaque keyset cursor rather than an offset, so fetching a page
+     * deep in a long history costs the same index seek as fetching the first one.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size Requested page size; null means the configured default, larger values are capped.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(UUID accountId, String cursor, Integer size) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to learn whether another page exists without a count query.
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findHistoryFirstPage(account, limit);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findHistoryPageAfter(account, after.getDate(), after.getId(), limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, pageSize);
+        return new TransactionPage(page, TransactionCursor.encode(page.get(pageSize - 1)));
+    }
+
+    // Each event carries its account's balance and version at the end of the batch, which is what the
+    // client ends up showing. Flushing first applies the balance UPDATEs, so the versions are the committed ones.
+    private void publishPosted(List<Transaction> txns) {
+        accountRepository.flush();
+        for (Transaction txn : txns) {
+            Account account = txn.getAccount();
+            events.transactionPosted(txn,
+                    () -> new TransactionEvent(account.getId(), account.getBalance(), account.getVersion(), txn));
+        }
+    }
+
+    // One rollup write per touched account; every movement of a batch shares the same date.
+    // The closing balance is the locked account's balance as held here, not re-read from the database,
+    // where it would only be current if the pending balance UPDATE happened to be flushed first.
+    private void recordBatchRollups(List<Transaction> txns, Instant date) {
+        // Per account: deposit total, deposit count, withdraw total, withdraw count.
+        Map<Account, long[]> totals = new LinkedHashMap<>();
+        for (Transaction txn : txns) {
+            long[] t = totals.computeIfAbsent(txn.getAccount(), account -> new long[4]);
+            int offset = txn.getType().isCredit() ? 0 : 2;
+            t[offset] = Money.add(t[offset], txn.getAmount());
+            t[offset + 1]++;
+        }
+        LocalDate day = RollupService.dayOf(date);
+        totals.forEach((account, t) ->
+                rollupService.record(account.getId(), day, t[0], (int) t[1], t[2], (int) t[3], account.getBalance()));
+    }
+
+    // Database timestamps keep microseconds; truncating up front means the date a caller sees is
+    // exactly the one stored, which point-in-time ledger queries and history cursors rely on.
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Accounts are always locked in ascending id order. Uuids are compared the way the database orders
+    // them (unsigned, byte by byte), so this agrees with the "order by a.id" of findAllByIdForUpdate.
+    private static int lockOrder(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static void requirePositive(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero.");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+-- The schema of a new database, as the entities map it. A database created earlier by Hibernate's
+-- ddl-auto=update is baselined at this version instead (spring.flyway.baseline-on-migrate) and skips
+-- this script; V2 then brings it up to this schema.
+-- Amounts are numeric(19,2) in currency units; the entities hold minor units (see MoneyConverter).
+
+create table app_user (
+    id uuid not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_app_user_username unique (username)
+);
+
+create table account (
+    balance numeric(19,2),
+    version bigint default 0 not null,
+    id uuid not null,
+    user_id uuid,
+    name varchar(255) not null,
+    primary key (id),
+    constraint fk_account_user foreign key (user_id) references app_user (id)
+);
+
+create table transaction (
+    amount numeric(19,2),
+    balance_after numeric(19,2),
+    date timestamp(6) with time zone,
+    account_id uuid,
+    id uuid not null,
+    import_ref uuid,
+    transfer_id uuid,
+    idempotency_key varchar(64),
+    type varchar(255) check (type in ('DEPOSIT','WITHDRAW','TRANSFER_IN','TRANSFER_OUT')),
+    primary key (id),
+    constraint fk_transaction_account foreign key (account_id) references account (id)
+);
+
+-- Unique indexes rather than constraints, so V2 can create them by name where they're missing.
+create unique index uk_transaction_import_ref on transaction (import_ref);
+create unique index uk_transaction_account_idempotency_key on transaction (account_id, idempotency_key);
+
+create index idx_transaction_account_date_id on transaction (account_id, date desc, id);
+
+create table balance_snapshot (
+    balance numeric(19,2) not null,
+    transaction_count integer not null,
+    as_of timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone,
+    account_id uuid not null,
+    id uuid not null,
+    primary key (id),
+    constraint fk_balance_snapshot_account foreign key (account_id) references account (id)
+);
+
+create index idx_balance_snapshot_account_as_of on balance_snapshot (account_id, as_of desc);
+
+create table daily_rollup (
+    closing_balance numeric(19,2) not null,
+    date date not null,
+    deposit_count integer not null,
+    deposit_total numeric(19,2) not null,
+    withdraw_count integer not null,
+    withdraw_total numeric(19,2) not null,
+    account_id uuid not null,
+    id uuid not null,
+    primary key (id),
+    constraint uk_daily_rollup_account_date unique (account_id, date),
+    constraint fk_daily_rollup_account foreign key (account_id) references account (id)
+);
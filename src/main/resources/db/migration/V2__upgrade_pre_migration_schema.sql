@@ -0,0 +1,51 @@
+-- Brings a database created by Hibernate's ddl-auto=update, before migrations took over, up to the V1
+-- schema. Such a database is baselined at V1 without running it, so it may still have the original
+-- tables: amounts in double precision, and none of the columns, indexes and tables added since.
+-- Every statement is a no-op on a database V1 created.
+
+-- ddl-auto=update never changes a column's type, so amounts are still double precision there, which
+-- ddl-auto=validate rejects. Both hold currency units, so values convert as they are.
+alter table account alter column balance type numeric(19,2);
+alter table transaction alter column amount type numeric(19,2);
+
+-- Existing rows start at version 0.
+alter table account add column if not exists version bigint default 0 not null;
+
+alter table transaction add column if not exists balance_after numeric(19,2);
+alter table transaction add column if not exists import_ref uuid;
+alter table transaction add column if not exists transfer_id uuid;
+alter table transaction add column if not exists idempotency_key varchar(64);
+
+-- Re-imports and idempotent retries rely on these rejecting duplicates.
+create unique index if not exists uk_transaction_import_ref on transaction (import_ref);
+create unique index if not exists uk_transaction_account_idempotency_key on transaction (account_id, idempotency_key);
+
+create index if not exists idx_transaction_account_date_id on transaction (account_id, date desc, id);
+
+create table if not exists balance_snapshot (
+    balance numeric(19,2) not null,
+    transaction_count integer not null,
+    as_of timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone,
+    account_id uuid not null,
+    id uuid not null,
+    primary key (id),
+    constraint fk_balance_snapshot_account foreign key (account_id) references account (id)
+);
+
+create index if not exists idx_balance_snapshot_account_as_of on balance_snapshot (account_id, as_of desc);
+
+-- Starts empty on an upgraded database; fill it once with java -jar app.jar --rollup.backfill.
+create table if not exists daily_rollup (
+    closing_balance numeric(19,2) not null,
+    date date not null,
+    deposit_count integer not null,
+    deposit_total numeric(19,2) not null,
+    withdraw_count integer not null,
+    withdraw_total numeric(19,2) not null,
+    account_id uuid not null,
+    id uuid not null,
+    primary key (id),
+    constraint uk_daily_rollup_account_date unique (account_id, date),
+    constraint fk_daily_rollup_account foreign key (account_id) references account (id)
+);
@@ -0,0 +1,11 @@
+-- Indexes for the lookups ddl-auto=update never created.
+
+-- Accounts by owner: AccountRepository.findByUser, and findViewsByUsername (GET /api/accounts/list),
+-- which reaches the owner through app_user's unique username index. Deliberately not covering
+-- (no INCLUDE of name/balance): balance changes on every write, and an indexed balance would turn
+-- those HOT updates into index updates.
+create index if not exists idx_account_user_id on account (user_id);
+
+-- Idempotency-Key lookups across accounts (TransactionRepository.findByIdempotencyKeyIn, used by group
+-- commit); the unique (account_id, idempotency_key) index only serves lookups by account.
+create index if not exists idx_transaction_idempotency_key on transaction (idempotency_key);
@@ -0,0 +1,77 @@
+package com.example.finance;
+
+import com.example.finance.model.Transaction;
+import com.example.finance.service.AccountService;
+import com.example.finance.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Starts the application on a database as Hibernate's ddl-auto=update created it from the original
+ * entities, before migrations existed: amounts in double precision, no version, ledger, import or
+ * idempotency columns, no snapshot or rollup tables. Flyway baselines it at V1 and V2 upgrades it, or
+ * the schema validation at startup fails.
+ */
+class SchemaUpgradeTest {
+
+    private static final String[] PRE_MIGRATION_SCHEMA = {
+            "create table app_user (id uuid not null, password varchar(255) not null, "
+                    + "username varchar(255) not null unique, primary key (id))",
+            "create table account (balance float(53) not null, id uuid not null, user_id uuid, "
+                    + "name varchar(255) not null, primary key (id))",
+            "create table transaction (amount float(53) not null, date timestamp(6) with time zone, "
+                    + "account_id uuid, id uuid not null, type varchar(255), primary key (id))",
+            "alter table account add constraint fk_account_owner foreign key (user_id) references app_user",
+            "alter table transaction add constraint fk_transaction_owner foreign key (account_id) references account"
+    };
+
+    @Test
+    void upgradesADatabaseCreatedBeforeMigrations() {
+        String url = "jdbc:h2:mem:upgrade-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        UUID userId = UUID.randomUUID();
+        UUID accountId = UUID.randomUUID();
+        SingleConnectionDataSource legacy = new SingleConnectionDataSource(url, "sa", "", true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(legacy);
+            for (String ddl : PRE_MIGRATION_SCHEMA) {
+                jdbc.execute(ddl);
+            }
+            jdbc.update("insert into app_user (id, username, password) values (?, 'legacy', 'x')", userId);
+            jdbc.update("insert into account (id, user_id, name, balance) values (?, ?, 'Current', 12.34)", accountId, userId);
+            jdbc.update("insert into transaction (id, account_id, amount, type, date) "
+                    + "values (?, ?, 20.00, 'DEPOSIT', timestamp with time zone '2024-03-01 09:00:00+00')", UUID.randomUUID(), accountId);
+            jdbc.update("insert into transaction (id, account_id, amount, type, date) "
+                    + "values (?, ?, 7.66, 'WITHDRAW', timestamp with time zone '2024-03-02 09:00:00+00')", UUID.randomUUID(), accountId);
+        } finally {
+            legacy.destroy();
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=" + url)) {
+            AccountService accountService = context.getBean(AccountService.class);
+            TransactionService transactionService = context.getBean(TransactionService.class);
+
+            assertEquals(1234, accountService.getAccount(accountId).getBalance());
+            List<Long> amounts = transactionService.getTransactions(accountId).stream()
+                    .map(Transaction::getAmount).sorted().toList();
+            assertEquals(List.of(766L, 2000L), amounts);
+
+            // Writes use the columns and tables V2 added; its unique index rejects a reused Idempotency-Key.
+            transactionService.deposit(accountId, 100, "upgrade-key");
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> transactionService.deposit(accountId, 100, "upgrade-key"));
+            assertEquals(1334, accountService.getAccount(accountId).getBalance());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.finance.controller;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Logins through the real servlet container, so X-Forwarded-For is resolved the way it is behind Nginx.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.login.per-ip.capacity=3", "security.login.per-ip.refill-per-minute=1", "security.bcrypt.strength=4"})
+@ActiveProfiles("test")
+class AuthControllerLoginTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void perIpLimitKeysOnTheForwardedClientAddress() {
+        for (int i = 0; i < 3; i++) {
+            assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1", "nobody-" + i, "Wr0ng!pass").getStatusCode());
+        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1", "nobody-3", "Wr0ng!pass").getStatusCode());
+        // Another client behind the same proxy has its own bucket.
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.2", "nobody-4", "Wr0ng!pass").getStatusCode());
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithAnotherCost() {
+        userRepository.save(new User("rehash-down", new BCryptPasswordEncoder(5).encode("Passw0rd!")));
+
+        ResponseEntity<Map> response = login("203.0.113.10", "rehash-down", "Passw0rd!");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String stored = userRepository.findByUsername("rehash-down").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2a$04$"), "Expected the hash at cost 4, got " + stored.substring(0, 7));
+    }
+
+    private ResponseEntity<Map> login(String clientIp, String username, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        return rest.postForEntity("/api/auth/login",
+                new HttpEntity<>(Map.of("username", username, "password", password), headers), Map.class);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.finance.controller;
+
+import com.example.finance.config.StatementCounter;
+import com.example.finance.dto.ExportFormat;
+import com.example.finance.service.TransactionExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the exact number of SQL statements every endpoint issues, as measured by StatementBudgetFilter
+ * (authentication included). A change that adds a statement to an endpoint fails here; if the new count
+ * is intended, update the expectation in the same change.
+ *
+ * Each test signs up a fresh user and makes one authenticated request first, so the principal is cached
+ * and the counts don't depend on test order.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointStatementCountTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionExportService exportService;
+
+    private String token;
+
+    @BeforeEach
+    void signUp() throws Exception {
+        String username = "counted-" + USERS.incrementAndGet();
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"Passw0rd!\"}";
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().isOk());
+        token = json(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().isOk()).andReturn()).get("token").asText();
+        mockMvc.perform(authed(get("/api/accounts/list"))).andExpect(status().isOk());
+    }
+
+    // AuthController
+
+    @Test
+    void register() throws Exception {
+        String body = "{\"username\":\"counted-new-" + USERS.incrementAndGet() + "\",\"password\":\"Passw0rd!\"}";
+        assertStatements(1, "POST", "/api/auth/register",
+                post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    @Test
+    void login() throws Exception {
+        String username = "counted-login-" + USERS.incrementAndGet();
+        String body = "{\"username\":\"" + username + "\",\"password\":\"Passw0rd!\"}";
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        assertStatements(1, "POST", "/api/auth/login",
+                post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    // AccountController
+
+    @Test
+    void createAccount() throws Exception {
+        assertStatements(2, "POST", "/api/accounts/create", authed(post("/api/accounts/create"))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"accountName\":\"Savings\"}"));
+    }
+
+    @Test
+    void listAccounts() throws Exception {
+        createAccount("Current");
+        createAccount("Savings");
+
+        assertStatements(1, "GET", "/api/accounts/list", authed(get("/api/accounts/list")));
+        // Cached until one of the accounts changes.
+        assertStatements(0, "GET", "/api/accounts/list", authed(get("/api/accounts/list")));
+    }
+
+    @Test
+    void streamEvents() throws Exception {
+        assertStatements(0, "GET", "/api/accounts/events", authed(get("/api/accounts/events")));
+    }
+
+    @Test
+    void getAccount() throws Exception {
+        UUID id = createAccount("Current");
+
+        assertStatements(1, "GET", "/api/accounts/{id}", authed(get("/api/accounts/{id}", id)));
+    }
+
+    @Test
+    void getBalanceAsOf() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+
+        assertStatements(3, "GET", "/api/accounts/{id}/balance",
+                authed(get("/api/accounts/{id}/balance", id)).param("asOf", Instant.now().toString()));
+    }
+
+    @Test
+    void getSummary() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+        LocalDate today = LocalDate.now();
+
+        assertStatements(2, "GET", "/api/accounts/{id}/summary", authed(get("/api/accounts/{id}/summary", id))
+                .param("from", today.minusDays(30).toString()).param("to", today.toString())
+                .param("granularity", "month"));
+    }
+
+    @Test
+    void deleteAccount() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+        mockMvc.perform(movement("/api/transactions/withdraw", id, "25.00")).andExpect(status().isOk());
+
+        // Lock, then delete the transactions, snapshots, rollups and the account itself.
+        assertStatements(5, "DELETE", "/api/accounts/{id}", authed(delete("/api/accounts/{id}", id)));
+    }
+
+    // TransactionController
+
+    @Test
+    void deposit() throws Exception {
+        UUID id = createAccount("Current");
+
+        // The first movement of the day also resolves the owner and creates the account's daily rollup row.
+        assertStatements(6, "POST", "/api/transactions/deposit", movement("/api/transactions/deposit", id, "25.00"));
+        assertStatements(3, "POST", "/api/transactions/deposit", movement("/api/transactions/deposit", id, "25.00"));
+    }
+
+    @Test
+    void idempotentDepositAndItsRetry() throws Exception {
+        UUID id = createAccount("Current");
+        String key = UUID.randomUUID().toString();
+
+        assertStatements(7, "POST", "/api/transactions/deposit",
+                movement("/api/transactions/deposit", id, "25.00").header("Idempotency-Key", key));
+        // The retry is answered from the idempotency cache.
+        assertStatements(0, "POST", "/api/transactions/deposit",
+                movement("/api/transactions/deposit", id, "25.00").header("Idempotency-Key", key));
+    }
+
+    @Test
+    void withdraw() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+
+        assertStatements(3, "POST", "/api/transactions/withdraw", movement("/api/transactions/withdraw", id, "10.00"));
+    }
+
+    @Test
+    void transfer() throws Exception {
+        UUID from = createAccount("Current");
+        UUID to = createAccount("Savings");
+        deposit(from, "25.00");
+
+        // The destination's owner and rollup row are new to this request; the inserts are one JDBC batch.
+        assertStatements(8, "POST", "/api/transactions/transfer", authed(post("/api/transactions/transfer"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":\"" + from + "\",\"toAccountId\":\"" + to + "\",\"amount\":\"10.00\"}"));
+    }
+
+    @Test
+    void batch() throws Exception {
+        UUID first = createAccount("Current");
+        UUID second = createAccount("Savings");
+        String items = "[" + item(first, "DEPOSIT", "25.00") + "," + item(second, "DEPOSIT", "5.00") + ","
+                + item(first, "WITHDRAW", "10.00") + "]";
+
+        assertStatements(9, "POST", "/api/transactions/batch", authed(post("/api/transactions/batch"))
+                .contentType(MediaType.APPLICATION_JSON).content(items));
+    }
+
+    @Test
+    void importStatement() throws Exception {
+        UUID id = createAccount("Current");
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                ("date,type,amount,reference\n"
+                        + "2024-03-01,DEPOSIT,100.00,salary\n"
+                        + "2024-03-02,WITHDRAW,20.00,rent\n"
+                        + "2024-03-02,WITHDRAW,5.50,coffee\n").getBytes());
+
+        assertStatements(10, "POST", "/api/transactions/import",
+                authed(multipart("/api/transactions/import").file(file)).param("accountId", id.toString()));
+    }
+
+    @Test
+    void getTransactions() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+        deposit(id, "5.00");
+
+        assertStatements(2, "GET", "/api/transactions/{accountId}", authed(get("/api/transactions/{accountId}", id)));
+    }
+
+    @Test
+    void historyPages() throws Exception {
+        UUID id = createAccount("Current");
+        for (int i = 0; i < 3; i++) {
+            deposit(id, "1.00");
+        }
+
+        MvcResult first = mockMvc.perform(authed(get("/api/transactions/{accountId}/history", id)).param("size", "2"))
+                .andExpect(status().isOk()).andReturn();
+        String cursor = json(first).get("nextCursor").asText();
+
+        assertStatements(2, "GET", "/api/transactions/{accountId}/history",
+                authed(get("/api/transactions/{accountId}/history", id)).param("size", "2"));
+        assertStatements(2, "GET", "/api/transactions/{accountId}/history",
+                authed(get("/api/transactions/{accountId}/history", id)).param("size", "2").param("cursor", cursor));
+    }
+
+    @Test
+    void exportTransactions() throws Exception {
+        UUID id = createAccount("Current");
+        deposit(id, "25.00");
+        deposit(id, "5.00");
+
+        // The request thread only checks the account; the rows are streamed afterwards.
+        assertStatements(1, "GET", "/api/transactions/{accountId}/export",
+                authed(get("/api/transactions/{accountId}/export", id)).param("format", "csv"));
+
+        StatementCounter.start();
+        exportService.export(id, Instant.EPOCH, Instant.now(), ExportFormat.CSV, OutputStream.nullOutputStream());
+        assertEquals(1, StatementCounter.stop());
+    }
+
+    private void assertStatements(long expected, String method, String uri, MockHttpServletRequestBuilder request)
+            throws Exception {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.statements")
+                .tags("method", method, "uri", uri).summary();
+        double before = summary != null ? summary.totalAmount() : 0;
+
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        double after = meterRegistry.get("http.server.requests.statements")
+                .tags("method", method, "uri", uri).summary().totalAmount();
+        assertEquals(expected, (long) (after - before), method + " " + uri);
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private UUID createAccount(String name) throws Exception {
+        MvcResult result = mockMvc.perform(authed(post("/api/accounts/create"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"accountName\":\"" + name + "\"}"))
+                .andExpect(status().isOk()).andReturn();
+        return UUID.fromString(json(result).get("id").asText());
+    }
+
+    private void deposit(UUID accountId, String amount) throws Exception {
+        mockMvc.perform(movement("/api/transactions/deposit", accountId, amount)).andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder movement(String path, UUID accountId, String amount) {
+        return authed(post(path)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountId\":\"" + accountId + "\",\"amount\":\"" + amount + "\"}");
+    }
+
+    private static String item(UUID accountId, String type, String amount) {
+        return "{\"accountId\":\"" + accountId + "\",\"type\":\"" + type + "\",\"amount\":\"" + amount + "\"}";
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.finance.repository;
+
+import com.example.finance.model.Account;
+import com.example.finance.model.TransactionType;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every repository query against a seeded H2 database, records the SQL and parameters it executes,
+ * and fails if H2's EXPLAIN plan for any of them reads a whole table or index instead of seeking an index.
+ * A new query, or a changed one, that no index serves shows up here. This is H2's planner, not PostgreSQL's:
+ * it catches queries with no usable index at all, but PostgreSQL may still choose a sequential scan, for
+ * example on a small table or with stale statistics, so production plans need checking there.
+ * Each query runs in a transaction that is rolled back, so writes leave the data as seeded.
+ *
+ * AccountRepository.findAllIds is left out: the batch jobs that use it read every account by design.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class H2QueryPlanTest {
+
+    // H2 annotates each table read with the index it uses; a table scan, or an index read without a
+    // condition, has no condition after the index name.
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.[\\w.]+ \\*/");
+
+    private static final int USERS = 200;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 100;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @TestFactory
+    Stream<DynamicTest> everyRepositoryQueryUsesAnIndex() {
+        seed();
+        UUID accountId = jdbc.queryForObject("select id from account order by id limit 1", UUID.class);
+        UUID userId = jdbc.queryForObject("select user_id from account where id = ?", UUID.class, accountId);
+        String username = jdbc.queryForObject("select username from app_user where id = ?", String.class, userId);
+        Map<String, Object> middle = jdbc.queryForMap("select id, date, idempotency_key, import_ref from transaction "
+                + "where account_id = ? order by date desc, id offset ? rows fetch next 1 row only",
+                accountId, TRANSACTIONS_PER_ACCOUNT / 2);
+        UUID txnId = (UUID) middle.get("id");
+        Instant date = jdbc.queryForObject("select date from transaction where id = ?", Instant.class, txnId);
+        String idempotencyKey = (String) middle.get("idempotency_key");
+        UUID importRef = (UUID) middle.get("import_ref");
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        Instant end = date.plusSeconds(86_400 * 7);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("AccountRepository.findById", () -> accountRepository.findById(accountId));
+        queries.put("AccountRepository.existsById", () -> accountRepository.existsById(accountId));
+        queries.put("AccountRepository.findByUser",
+                () -> accountRepository.findByUser(userRepository.getReferenceById(userId)));
+        queries.put("AccountRepository.findViewsByUsername", () -> accountRepository.findViewsByUsername(username));
+        queries.put("AccountRepository.findViewById", () -> accountRepository.findViewById(accountId));
+        queries.put("AccountRepository.findBalanceById", () -> accountRepository.findBalanceById(accountId));
+        queries.put("AccountRepository.findEventById", () -> accountRepository.findEventById(accountId));
+        queries.put("AccountRepository.findOwnerUsername", () -> accountRepository.findOwnerUsername(accountId));
+        queries.put("AccountRepository.findByIdForUpdate", () -> accountRepository.findByIdForUpdate(accountId));
+        queries.put("AccountRepository.findAllByIdForUpdate",
+                () -> accountRepository.findAllByIdForUpdate(List.of(accountId, UUID.randomUUID())));
+        queries.put("AccountRepository.credit", () -> accountRepository.credit(accountId, 100));
+        queries.put("AccountRepository.debit", () -> accountRepository.debit(accountId, 100));
+
+        Account account = accountRepository.getReferenceById(accountId);
+        queries.put("TransactionRepository.findByAccount", () -> transactionRepository.findByAccount(account));
+        queries.put("TransactionRepository.findHistoryFirstPage",
+                () -> transactionRepository.findHistoryFirstPage(account, Limit.of(51)));
+        queries.put("TransactionRepository.findHistoryPageAfter",
+                () -> transactionRepository.findHistoryPageAfter(account, date, txnId, Limit.of(51)));
+        queries.put("TransactionRepository.sumNetAmount",
+                () -> transactionRepository.sumNetAmount(accountId, date, end));
+        queries.put("TransactionRepository.findLedgerEntries",
+                () -> transactionRepository.findLedgerEntries(accountId, date, end, Limit.of(1000)));
+        queries.put("TransactionRepository.findLedgerEntriesAfter",
+                () -> transactionRepository.findLedgerEntriesAfter(accountId, date, txnId, end, Limit.of(1000)));
+        queries.put("TransactionRepository.findByAccountIdAndIdempotencyKey",
+                () -> transactionRepository.findByAccountIdAndIdempotencyKey(accountId, idempotencyKey));
+        queries.put("TransactionRepository.findByIdempotencyKeyIn",
+                () -> transactionRepository.findByIdempotencyKeyIn(List.of(idempotencyKey, "unused-key")));
+        queries.put("TransactionRepository.findExistingImportRefs",
+                () -> transactionRepository.findExistingImportRefs(Set.of(importRef, UUID.randomUUID())));
+        queries.put("TransactionRepository.streamLedgerEntries", () -> {
+            try (var entries = transactionRepository.streamLedgerEntries(accountId, date, end)) {
+                entries.forEach(entry -> { });
+            }
+        });
+        queries.put("TransactionRepository.deleteByAccountId", () -> transactionRepository.deleteByAccountId(accountId));
+
+        queries.put("DailyRollupRepository.findByAccountIdAndDateBetweenOrderByDateAsc",
+                () -> rollupRepository.findByAccountIdAndDateBetweenOrderByDateAsc(accountId, day, day.plusDays(7)));
+        queries.put("DailyRollupRepository.findFirstByAccountIdAndDateLessThanOrderByDateDesc",
+                () -> rollupRepository.findFirstByAccountIdAndDateLessThanOrderByDateDesc(accountId, day));
+        queries.put("DailyRollupRepository.accumulate",
+                () -> rollupRepository.accumulate(accountId, day, 100, 1, 0, 0));
+        queries.put("DailyRollupRepository.accumulate with closing balance",
+                () -> rollupRepository.accumulate(accountId, day, 100, 1, 0, 0, 10_000));
+        queries.put("DailyRollupRepository.shiftClosingBalancesAfter",
+                () -> rollupRepository.shiftClosingBalancesAfter(accountId, day, 100));
+        queries.put("DailyRollupRepository.deleteByAccountId", () -> rollupRepository.deleteByAccountId(accountId));
+
+        queries.put("BalanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc",
+                () -> snapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, date));
+        queries.put("BalanceSnapshotRepository.findFirstByAccountIdOrderByAsOfDesc",
+                () -> snapshotRepository.findFirstByAccountIdOrderByAsOfDesc(accountId));
+        queries.put("BalanceSnapshotRepository.deleteFrom", () -> snapshotRepository.deleteFrom(accountId, date));
+        queries.put("BalanceSnapshotRepository.deleteByAccountId", () -> snapshotRepository.deleteByAccountId(accountId));
+
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername(username));
+
+        return queries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            List<RecordedStatement> statements = record(query.getValue());
+            assertFalse(statements.isEmpty(), "No statement recorded");
+            for (RecordedStatement statement : statements) {
+                String plan = explain(statement);
+                if (FULL_SCAN.matcher(plan).find()) {
+                    fail("Full scan in the plan of\n  " + statement.sql() + "\n" + plan);
+                }
+            }
+        }));
+    }
+
+    // Accounts, each with hourly transactions, a month of daily rollups and a few balance snapshots.
+    private void seed() {
+        jdbc.update("insert into app_user (id, username, password) "
+                + "select random_uuid(7), 'planner-' || x, 'x' from system_range(1, ?)", USERS);
+        jdbc.update("insert into account (id, user_id, name, balance, version) "
+                + "select random_uuid(7), u.id, 'account ' || x, 100.00, 0 from app_user u, system_range(1, 2)");
+        jdbc.update("insert into transaction (id, account_id, amount, type, date, idempotency_key, import_ref) "
+                + "select random_uuid(7), a.id, 1.00, case when mod(x, 3) = 0 then ? else ? end, "
+                + "dateadd(hour, x, timestamp with time zone '2024-01-01 00:00:00+00'), 'key-' || x, random_uuid() "
+                + "from account a, system_range(1, ?)",
+                TransactionType.WITHDRAW.name(), TransactionType.DEPOSIT.name(), TRANSACTIONS_PER_ACCOUNT);
+        jdbc.update("insert into daily_rollup (id, account_id, date, deposit_total, deposit_count, withdraw_total, "
+                + "withdraw_count, closing_balance) "
+                + "select random_uuid(7), a.id, dateadd(day, x, date '2024-01-01'), 16.00, 16, 8.00, 8, 100.00 "
+                + "from account a, system_range(0, 29)");
+        jdbc.update("insert into balance_snapshot (id, account_id, as_of, balance, transaction_count, created_at) "
+                + "select random_uuid(7), a.id, dateadd(day, 7 * x, timestamp with time zone '2024-01-01 00:00:00+00'), "
+                + "100.00, 24 * 7 * x, current_timestamp from account a, system_range(1, 4)");
+        jdbc.execute("analyze");
+    }
+
+    private List<RecordedStatement> record(Runnable query) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        RecordingDataSource.RECORDED.set(statements);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            RecordingDataSource.RECORDED.remove();
+        }
+        return statements;
+    }
+
+    private String explain(RecordedStatement statement) throws Exception {
+        DataSource target = ((RecordingDataSource) dataSource).getTargetDataSource();
+        try (Connection connection = target.getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.sql())) {
+            for (Binding binding : statement.bindings()) {
+                binding.method().invoke(explain, binding.args());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append('\n');
+                }
+                return text.toString();
+            }
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {}
+
+    private record RecordedStatement(String sql, List<Binding> bindings) {}
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? new RecordingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Hands out connections whose prepared statements, while RECORDED is set on the calling thread,
+     * add the SQL and bound parameters of each execution to it.
+     */
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        static final ThreadLocal<List<RecordedStatement>> RECORDED = new ThreadLocal<>();
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        private static Connection recording(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                List<RecordedStatement> recorded = RECORDED.get();
+                if (recorded != null && method.getName().equals("prepareStatement")) {
+                    return recording((PreparedStatement) result, (String) args[0], recorded);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql,
+                                                   List<RecordedStatement> recorded) {
+            Map<Integer, Binding> bindings = new TreeMap<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bindings.put(index, new Binding(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") || name.equals("addBatch")) {
+                    recorded.add(new RecordedStatement(sql, List.copyOf(bindings.values())));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.finance.security;
+
+import com.example.finance.model.User;
+import com.example.finance.repository.UserRepository;
+import com.example.finance.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Which requests the filter chain lets through, checked through the real servlet container.
+ * Metrics export is switched on, as tests otherwise leave the Prometheus endpoint out.
+ */
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "security.bcrypt.strength=4")
+@ActiveProfiles("test")
+class SecurityAccessTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Test
+    void onlyHealthIsPublicAmongActuatorEndpoints() {
+        assertEquals(HttpStatus.OK, rest.getForEntity("/actuator/health", String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, rest.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, rest.getForEntity("/actuator/metrics", String.class).getStatusCode());
+
+        authService.register(new User("scraper", "Passw0rd!"));
+        String token = authService.login(new User("scraper", "Passw0rd!"));
+        assertEquals(HttpStatus.OK, get("/actuator/prometheus", token).getStatusCode());
+    }
+
+    @Test
+    void tokenOfADeletedUserIsUnauthorized() {
+        authService.register(new User("deleted-user", "Passw0rd!"));
+        String token = authService.login(new User("deleted-user", "Passw0rd!"));
+        assertEquals(HttpStatus.OK, get("/api/accounts/list", token).getStatusCode());
+
+        userRepository.delete(userRepository.findByUsername("deleted-user").orElseThrow());
+        // Dropped as a user-deleting path would, so the filter has to look the user up again.
+        principalCache.evict("deleted-user");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, get("/api/accounts/list", token).getStatusCode());
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.finance.service;
+
+import com.example.finance.config.StatementCounter;
+import com.example.finance.dto.AccountView;
+import com.example.finance.model.User;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Listing a user's accounts is one statement however many accounts, and however much history, they have:
+ * AccountView projections never load the owner or the transactions.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountListQueryCountTest {
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void listingAccountsTakesOneStatement(int accounts) {
+        String username = "lister-" + accounts;
+        authService.register(new User(username, "Passw0rd!"));
+        AccountView last = null;
+        for (int i = 0; i < accounts; i++) {
+            last = accountService.createAccount(username, "account " + i);
+            transactionService.deposit(last.getId(), 1_000);
+            transactionService.withdraw(last.getId(), 250);
+        }
+
+        StatementCounter.start();
+        List<AccountView> listed = accountService.getAccounts(username);
+        long statements = StatementCounter.stop();
+
+        assertEquals(accounts, listed.size());
+        assertEquals(1, statements);
+        assertEquals(750, listed.get(0).getBalance());
+
+        // Served from AccountCache until one of the accounts changes.
+        StatementCounter.start();
+        accountService.getAccounts(username);
+        assertEquals(0, StatementCounter.stop());
+
+        StatementCounter.start();
+        AccountView detail = accountService.getAccount(last.getId());
+        assertEquals(1, StatementCounter.stop());
+        assertEquals(username, detail.getUsername());
+    }
+}
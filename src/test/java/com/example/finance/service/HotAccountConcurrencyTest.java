@@ -0,0 +1,95 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.model.Account;
+import com.example.finance.model.User;
+import com.example.finance.repository.AccountRepository;
+import com.example.finance.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 64 writers depositing into and withdrawing from one account at once. Every write must land:
+ * the final balance, the number of rows and the version all account for each one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "spring.datasource.hikari.connection-timeout=60000"
+})
+@ActiveProfiles("test")
+class HotAccountConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HotAccountConcurrencyTest.class);
+
+    private static final int WRITERS = 64;
+    private static final int WRITES_PER_WRITER = 50;
+    private static final long OPENING_BALANCE = 100_000;
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentDepositsAndWithdrawalsOnOneAccountLoseNoUpdates() throws Exception {
+        authService.register(new User("hot-account", "Passw0rd!"));
+        AccountView hot = accountService.createAccount("hot-account", "hot");
+        transactionService.deposit(hot.getId(), OPENING_BALANCE);
+        long versionBefore = accountRepository.findById(hot.getId()).orElseThrow().getVersion();
+
+        // Even writers deposit 3, odd writers withdraw 1.
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            boolean deposits = w % 2 == 0;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                    if (deposits) {
+                        transactionService.deposit(hot.getId(), 3);
+                    } else {
+                        transactionService.withdraw(hot.getId(), 1);
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+
+        int writes = WRITERS * WRITES_PER_WRITER;
+        log.info("{} writes from {} writers on one account in {} ms: {} writes/s",
+                writes, WRITERS, elapsed / 1_000_000, Math.round(writes / (elapsed / 1e9)));
+
+        int perSide = writes / 2;
+        Account account = accountRepository.findById(hot.getId()).orElseThrow();
+        assertEquals(OPENING_BALANCE + perSide * 3L - perSide, account.getBalance());
+        assertEquals(versionBefore + writes, account.getVersion());
+        assertEquals(writes + 1, transactionRepository.findByAccount(account).size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.ExportFormat;
+import com.example.finance.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports a multi-million-row history and checks the live heap stays flat while it streams.
+ * The database is an H2 file under target/ rather than in memory, so the rows themselves aren't on the heap.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/export-heap-${random.uuid};MODE=PostgreSQL")
+@ActiveProfiles("test")
+class TransactionExportHeapTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportHeapTest.class);
+
+    private static final int ROWS = 2_000_000;
+    private static final int SEED_CHUNK_ROWS = 100_000;
+    private static final int SAMPLE_EVERY_ROWS = 250_000;
+    // Holding the exported rows would grow the heap by hundreds of megabytes.
+    private static final long MAX_HEAP_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionExportService exportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteDatabase() {
+        jdbcTemplate.execute("drop all objects delete files");
+    }
+
+    @Test
+    void exportHeapStaysFlatAcrossMillionsOfRows() throws Exception {
+        authService.register(new User("exporter", "Passw0rd!"));
+        AccountView account = accountService.createAccount("exporter", "statement");
+        // Seeded in chunks so no single statement has to hold millions of rows of undo.
+        for (int from = 1; from <= ROWS; from += SEED_CHUNK_ROWS) {
+            jdbcTemplate.update("insert into transaction (id, account_id, amount, date, type) " +
+                    "select random_uuid(7), ?, 1.00, dateadd('SECOND', x, timestamp with time zone '2020-01-01 00:00:00+00'), 'DEPOSIT' " +
+                    "from system_range(?, ?)", account.getId(), from, Math.min(ROWS, from + SEED_CHUNK_ROWS - 1));
+        }
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+        long written = exportService.export(account.getId(), Instant.EPOCH, Instant.now(), ExportFormat.CSV, out);
+
+        assertEquals(ROWS, written);
+        // The header line plus one line per row.
+        assertEquals(ROWS + 1, out.lines);
+        long first = out.samples.get(0);
+        long peak = out.samples.stream().mapToLong(Long::longValue).max().orElseThrow();
+        log.info("Exported {} rows ({} MB); live heap sampled every {} rows: {} MB",
+                written, out.bytes / (1024 * 1024), SAMPLE_EVERY_ROWS,
+                out.samples.stream().map(used -> used / (1024 * 1024)).toList());
+        assertTrue(peak - first < MAX_HEAP_GROWTH_BYTES,
+                "Live heap grew by " + (peak - first) / (1024 * 1024) + " MB during the export");
+    }
+
+    // Discards the export, recording the live heap (used after a full GC) every SAMPLE_EVERY_ROWS lines.
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final List<Long> samples = new ArrayList<>();
+        private long lines;
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            count(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                count(b[i]);
+            }
+        }
+
+        private void count(int b) {
+            bytes++;
+            if (b == '\n' && ++lines % SAMPLE_EVERY_ROWS == 0) {
+                memory.gc();
+                samples.add(memory.getHeapMemoryUsage().getUsed());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.ImportResult;
+import com.example.finance.model.Transaction;
+import com.example.finance.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * In ledger mode imported rows carry the running balance after each of them, continuing from the balance
+ * the account had before the import.
+ */
+@SpringBootTest(properties = "ledger.enabled=true")
+@ActiveProfiles("test")
+class TransactionImportLedgerTest {
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionImportService importService;
+
+    @Test
+    void importedRowsRecordTheirRunningBalance() throws Exception {
+        authService.register(new User("ledger-importer", "Passw0rd!"));
+        AccountView account = accountService.createAccount("ledger-importer", "current");
+        transactionService.deposit(account.getId(), 5_000);
+
+        byte[] csv = ("date,type,amount\n"
+                + "2024-01-01,DEPOSIT,10.00\n"
+                + "2024-01-02,WITHDRAW,2.50\n"
+                + "2024-01-03,DEPOSIT,1.25\n").getBytes(StandardCharsets.UTF_8);
+        importService.importCsv("ledger-importer", new ByteArrayResource(csv), account.getId());
+        // Importing the same file again inserts nothing, so there are no running balances to continue.
+        ImportResult again = importService.importCsv("ledger-importer", new ByteArrayResource(csv), account.getId());
+        assertEquals(0, again.getImported());
+
+        List<Long> imported = transactionService.getTransactions(account.getId()).stream()
+                .filter(txn -> txn.getImportRef() != null)
+                .sorted(Comparator.comparing(Transaction::getDate))
+                .map(Transaction::getBalanceAfter)
+                .toList();
+        assertEquals(List.of(6_000L, 5_750L, 5_875L), imported);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.dto.TransactionBatchItem;
+import com.example.finance.model.TransactionType;
+import com.example.finance.model.User;
+import com.example.finance.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Bulk paths that name several accounts at once must refuse the whole request if any of them belongs to
+ * someone else, without touching a balance.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionOwnershipTest {
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionImportService importService;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void batchTouchingAnotherUsersAccountIsRejected() {
+        authService.register(new User("batch-victim", "Passw0rd!"));
+        authService.register(new User("batch-thief", "Passw0rd!"));
+        AccountView victim = accountService.createAccount("batch-victim", "savings");
+        AccountView thief = accountService.createAccount("batch-thief", "current");
+        transactionService.deposit(victim.getId(), 10_000);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> transactionService.applyBatch("batch-thief", List.of(
+                        new TransactionBatchItem(thief.getId(), TransactionType.DEPOSIT, 10_000),
+                        new TransactionBatchItem(victim.getId(), TransactionType.WITHDRAW, 10_000))));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+        assertEquals(10_000, accountRepository.findBalanceById(victim.getId()));
+        assertEquals(0, accountRepository.findBalanceById(thief.getId()));
+
+        // The owner can still batch against their own account.
+        transactionService.applyBatch("batch-victim", List.of(
+                new TransactionBatchItem(victim.getId(), TransactionType.WITHDRAW, 2_500)));
+        assertEquals(7_500, accountRepository.findBalanceById(victim.getId()));
+    }
+
+    @Test
+    void importNamingAnotherUsersAccountIsRejected() throws Exception {
+        authService.register(new User("import-victim", "Passw0rd!"));
+        authService.register(new User("import-thief", "Passw0rd!"));
+        AccountView victim = accountService.createAccount("import-victim", "savings");
+        AccountView thief = accountService.createAccount("import-thief", "current");
+        transactionService.deposit(victim.getId(), 10_000);
+
+        // The thief's own rows come first, so they would already be inserted by a check made row by row.
+        String csv = "date,type,amount,accountId\n"
+                + "2024-01-01,DEPOSIT,100.00," + thief.getId() + "\n"
+                + "2024-01-02,WITHDRAW,100.00," + victim.getId() + "\n";
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> importService.importCsv("import-thief", resource(csv), null));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+
+        // The accountId parameter is checked the same way.
+        e = assertThrows(ResponseStatusException.class, () -> importService.importCsv("import-thief",
+                resource("date,type,amount\n2024-01-01,WITHDRAW,100.00\n"), victim.getId()));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+
+        assertEquals(10_000, accountRepository.findBalanceById(victim.getId()));
+        assertEquals(0, accountRepository.findBalanceById(thief.getId()));
+        assertEquals(1, transactionService.getTransactions(victim.getId()).size());
+        assertEquals(0, transactionService.getTransactions(thief.getId()).size());
+    }
+
+    private static ByteArrayResource resource(String csv) {
+        return new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.finance.service;
+
+import com.example.finance.dto.AccountView;
+import com.example.finance.model.User;
+import com.example.finance.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads moving random amounts between a few accounts, in both directions at once. No transfer may
+ * deadlock or time out on a lock, and the total held across the accounts must not change.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.connection-timeout=60000")
+@ActiveProfiles("test")
+class TransferConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferConcurrencyTest.class);
+
+    private static final int ACCOUNTS = 6;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 100;
+    private static final long OPENING_BALANCE = 100_000;
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void randomTransfersConserveMoneyWithoutDeadlocking() throws Exception {
+        authService.register(new User("transfer-stress", "Passw0rd!"));
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountView account = accountService.createAccount("transfer-stress", "account " + i);
+            transactionService.deposit(account.getId(), OPENING_BALANCE);
+            accounts.add(account.getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        transactionService.transfer("transfer-stress", accounts.get(from), accounts.get(to), 1 + random.nextInt(5_000));
+                        completed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // An emptied account is a normal outcome of random transfers; anything else fails the test.
+                        if (!"Insufficient funds".equals(e.getMessage())) {
+                            throw e;
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            // A deadlock would leave a worker stuck, or failing with the database's lock error.
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+        log.info("{} transfers ({} completed) from {} threads across {} accounts in {} ms: {} transfers/s",
+                THREADS * TRANSFERS_PER_THREAD, completed.get(), THREADS, ACCOUNTS, elapsed / 1_000_000,
+                Math.round(THREADS * TRANSFERS_PER_THREAD / (elapsed / 1e9)));
+
+        long total = 0;
+        for (UUID id : accounts) {
+            long balance = accountRepository.findBalanceById(id);
+            assertTrue(balance >= 0, "Account " + id + " went negative: " + balance);
+            total += balance;
+        }
+        assertEquals(OPENING_BALANCE * ACCOUNTS, total);
+        assertTrue(completed.get() > 0);
+    }
+
+    @Test
+    void transferFromAnotherUsersAccountIsRejected() {
+        authService.register(new User("transfer-victim", "Passw0rd!"));
+        authService.register(new User("transfer-thief", "Passw0rd!"));
+        AccountView victim = accountService.createAccount("transfer-victim", "savings");
+        AccountView thief = accountService.createAccount("transfer-thief", "current");
+        transactionService.deposit(victim.getId(), 10_000);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> transactionService.transfer("transfer-thief", victim.getId(), thief.getId(), 10_000));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+        assertThrows(ResponseStatusException.class,
+                () -> transactionService.transfer("transfer-thief", UUID.randomUUID(), thief.getId(), 1));
+        assertEquals(10_000, accountRepository.findBalanceById(victim.getId()));
+        assertEquals(0, accountRepository.findBalanceById(thief.getId()));
+
+        // The owner can still move the money.
+        transactionService.transfer("transfer-victim", victim.getId(), thief.getId(), 2_500);
+        assertEquals(7_500, accountRepository.findBalanceById(victim.getId()));
+        assertEquals(2_500, accountRepository.findBalanceById(thief.getId()));
+    }
+}